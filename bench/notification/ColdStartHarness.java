@@ -0,0 +1,131 @@
+package notification;
+
+import javafx.animation.AnimationTimer;
+import javafx.application.Platform;
+import javafx.stage.Stage;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.PrintWriter;
+import java.util.Arrays;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+
+// Compares the first notification of a fresh JVM with steady state, one mode per JVM so each run is really cold.
+// The row is appended to the report, so cold, warm and AppCDS runs end up side by side.
+// Usage: ColdStartHarness <cold|warm> [report.csv] [label] [iterations]
+public class ColdStartHarness {
+
+    private final Stage primaryStage;
+
+    private ColdStartHarness(Stage primaryStage) {
+        this.primaryStage = primaryStage;
+    }
+
+    public static void main(String[] args) throws Exception {
+        boolean warm = args.length > 0 && args[0].equals("warm");
+        String reportPath = args.length > 1 ? args[1] : "cold-start.csv";
+        String label = args.length > 2 ? args[2] : "current";
+        int iterations = args.length > 3 ? Integer.parseInt(args[3]) : 50;
+
+        long launched = System.nanoTime();
+        CountDownLatch started = new CountDownLatch(1);
+        Platform.startup(started::countDown);
+        started.await();
+        long toolkit = System.nanoTime() - launched;
+
+        ColdStartHarness harness = new ColdStartHarness(onFx(Stage::new));
+        long warmUp = 0;
+        if (warm) {
+            long warmUpStart = System.nanoTime();
+            onFx(() -> {
+                WarmUp.run(harness.primaryStage);
+                return null;
+            });
+            warmUp = System.nanoTime() - warmUpStart;
+        }
+
+        long[] first = harness.sample();
+        long[] build = new long[iterations];
+        long[] frame = new long[iterations];
+        for (int i = 0; i < iterations; i++) {
+            long[] sample = harness.sample();
+            build[i] = sample[0];
+            frame[i] = sample[1];
+        }
+
+        File report = new File(reportPath);
+        boolean header = !report.exists();
+        try (PrintWriter out = new PrintWriter(new FileWriter(report, true))) {
+            if (header) {
+                out.println("label,mode,toolkit_ms,warmup_ms,first_build_us,first_frame_us,steady_build_p50_us,steady_frame_p50_us");
+            }
+            out.println(label + "," + (warm ? "warm" : "cold") + "," + toolkit / 1_000_000 + "," + warmUp / 1_000_000
+                    + "," + first[0] / 1_000 + "," + first[1] / 1_000
+                    + "," + percentile(build, 50) / 1_000 + "," + percentile(frame, 50) / 1_000);
+        }
+
+        Platform.exit();
+    }
+
+    // build() time and the time until the next pulse, then the notification is closed and fully released
+    private long[] sample() throws Exception {
+        long[] start = new long[1];
+        Notify notify = onFx(() -> {
+            Notify.Builder builder = new Notify.Builder(primaryStage)
+                    .title("Cold start")
+                    .message("How late is the first notification?")
+                    .appName("ColdStartHarness")
+                    .waitTime(Notify.Durability.NEVER)
+                    .textInput()
+                    .comboBox("a", "a", "b", "c")
+                    .okButton("OK", event -> {
+                    })
+                    .cancelButton("CANCEL", event -> {
+                    });
+            start[0] = System.nanoTime();
+            return builder.build();
+        });
+        long built = System.nanoTime() - start[0];
+        long frame = awaitNextPulse() - start[0];
+
+        onFx(() -> {
+            notify.close();
+            return null;
+        });
+        while (!onFx(notify::isClosed)) {
+            TimeUnit.MILLISECONDS.sleep(1);
+        }
+        return new long[]{built, frame};
+    }
+
+    private static long awaitNextPulse() throws InterruptedException {
+        CountDownLatch pulsed = new CountDownLatch(1);
+        long[] at = new long[1];
+        Platform.runLater(() -> new AnimationTimer() {
+            @Override
+            public void handle(long now) {
+                at[0] = System.nanoTime();
+                stop();
+                pulsed.countDown();
+            }
+        }.start());
+        pulsed.await();
+        return at[0];
+    }
+
+    private static <T> T onFx(Callable<T> callable) throws InterruptedException, ExecutionException {
+        FutureTask<T> task = new FutureTask<>(callable);
+        Platform.runLater(task);
+        return task.get();
+    }
+
+    private static long percentile(long[] samples, int percentile) {
+        long[] sorted = samples.clone();
+        Arrays.sort(sorted);
+        return sorted[Math.min(sorted.length - 1, sorted.length * percentile / 100)];
+    }
+}
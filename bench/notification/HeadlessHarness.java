@@ -0,0 +1,210 @@
+package notification;
+
+import javafx.animation.AnimationTimer;
+import javafx.application.Platform;
+import javafx.stage.Stage;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+
+// Measures the UI paths of a notification on a headless Monocle toolkit, one CSV row per scenario.
+// Usage: HeadlessHarness [report.csv] [label] [iterations] [livePopups]
+public class HeadlessHarness {
+
+    private static final int WARMUP_ITERATIONS = 10;
+
+    private final int iterations;
+    private final String iconPath;
+    private Stage primaryStage;
+
+    private HeadlessHarness(int iterations, String iconPath) {
+        this.iterations = iterations;
+        this.iconPath = iconPath;
+    }
+
+    public static void main(String[] args) throws Exception {
+        String reportPath = args.length > 0 ? args[0] : "bench-report.csv";
+        String label = args.length > 1 ? args[1] : "current";
+        int iterations = args.length > 2 ? Integer.parseInt(args[2]) : 50;
+        int livePopups = args.length > 3 ? Integer.parseInt(args[3]) : 100;
+
+        System.setProperty("glass.platform", "Monocle");
+        System.setProperty("monocle.platform", "Headless");
+        System.setProperty("prism.order", "sw");
+        System.setProperty("prism.text", "t2k");
+
+        CountDownLatch started = new CountDownLatch(1);
+        Platform.startup(started::countDown);
+        started.await();
+
+        HeadlessHarness harness = new HeadlessHarness(iterations, createIcon());
+        harness.primaryStage = harness.onFx(Stage::new);
+
+        try (PrintWriter report = new PrintWriter(reportPath)) {
+            report.println("label,scenario,build_p50_us,build_p99_us,first_frame_p50_us,close_p50_ms,alloc_bytes");
+            for (Notify.Animation animation : Notify.Animation.values()) {
+                for (Notify.Border border : Notify.Border.values()) {
+                    for (Notify.Sounds sound : Notify.Sounds.values()) {
+                        for (Inputs inputs : Inputs.values()) {
+                            report.println(label + "," + harness.run(animation, border, sound, inputs));
+                        }
+                    }
+                }
+            }
+            report.println(label + ",steady_heap_" + livePopups + ",,,,," + harness.steadyHeap(livePopups));
+        }
+
+        Platform.exit();
+    }
+
+    private String run(Notify.Animation animation, Notify.Border border, Notify.Sounds sound, Inputs inputs)
+            throws Exception {
+        long[] build = new long[iterations];
+        long[] firstFrame = new long[iterations];
+        long[] close = new long[iterations];
+        long allocated = 0;
+
+        for (int i = -WARMUP_ITERATIONS; i < iterations; i++) {
+            Sample sample = onFx(() -> {
+                Notify.Builder builder = builder(animation, border, sound, inputs);
+                long allocatedBefore = allocatedBytes();
+                long start = System.nanoTime();
+                Notify notify = builder.build();
+                long built = System.nanoTime();
+                return new Sample(notify, start, built - start, allocatedBytes() - allocatedBefore);
+            });
+            long frame = awaitNextPulse() - sample.start;
+
+            long closeStart = System.nanoTime();
+            onFx(() -> {
+                sample.notify.close();
+                return null;
+            });
+            while (!onFx(sample.notify::isClosed)) {
+                TimeUnit.MILLISECONDS.sleep(1);
+            }
+
+            if (i >= 0) {
+                build[i] = sample.build;
+                firstFrame[i] = frame;
+                close[i] = System.nanoTime() - closeStart;
+                allocated += sample.allocated;
+            }
+        }
+
+        return animation + "/" + border + "/" + sound + "/" + inputs + ","
+                + percentile(build, 50) / 1_000 + "," + percentile(build, 99) / 1_000 + ","
+                + percentile(firstFrame, 50) / 1_000 + "," + percentile(close, 50) / 1_000_000 + ","
+                + allocated / iterations;
+    }
+
+    private long steadyHeap(int livePopups) throws Exception {
+        onFx(() -> {
+            NotificationStack.getInstance().setMaxVisible(livePopups);
+            for (int i = 0; i < livePopups; i++) {
+                builder(Notify.Animation.TRANSPARENT, Notify.Border.CIRCLE, Notify.Sounds.ICQ, Inputs.BOTH).build();
+            }
+            return null;
+        });
+        awaitNextPulse();
+
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            TimeUnit.MILLISECONDS.sleep(100);
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    private Notify.Builder builder(Notify.Animation animation, Notify.Border border, Notify.Sounds sound, Inputs inputs) {
+        Notify.Builder builder = new Notify.Builder(primaryStage)
+                .title("Benchmark")
+                .message("Measuring the cost of a single notification")
+                .appName("HeadlessHarness")
+                .iconPathURL(iconPath)
+                .animation(animation)
+                .iconBorder(border)
+                .sound(sound)
+                .waitTime(Notify.Durability.NEVER)
+                .okButton("OK", event -> {
+                })
+                .cancelButton("CANCEL", event -> {
+                });
+
+        if (inputs == Inputs.TEXT || inputs == Inputs.BOTH) {
+            builder.textInput();
+        }
+
+        if (inputs == Inputs.COMBO || inputs == Inputs.BOTH) {
+            builder.comboBox("a", "a", "b", "c", "d", "e");
+        }
+
+        return builder;
+    }
+
+    private long awaitNextPulse() throws InterruptedException {
+        CountDownLatch pulsed = new CountDownLatch(1);
+        long[] at = new long[1];
+        Platform.runLater(() -> new AnimationTimer() {
+            @Override
+            public void handle(long now) {
+                at[0] = System.nanoTime();
+                stop();
+                pulsed.countDown();
+            }
+        }.start());
+        pulsed.await();
+        return at[0];
+    }
+
+    private <T> T onFx(Callable<T> callable) throws InterruptedException, ExecutionException {
+        FutureTask<T> task = new FutureTask<>(callable);
+        Platform.runLater(task);
+        return task.get();
+    }
+
+    private static long allocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean()).getCurrentThreadAllocatedBytes();
+    }
+
+    private static long percentile(long[] samples, int percentile) {
+        long[] sorted = samples.clone();
+        Arrays.sort(sorted);
+        return sorted[Math.min(sorted.length - 1, sorted.length * percentile / 100)];
+    }
+
+    private static String createIcon() throws IOException {
+        BufferedImage image = new BufferedImage(900, 900, BufferedImage.TYPE_INT_ARGB);
+        File file = File.createTempFile("notify-bench", ".png");
+        file.deleteOnExit();
+        ImageIO.write(image, "png", file);
+        return file.getAbsolutePath();
+    }
+
+    private enum Inputs {
+        NONE, TEXT, COMBO, BOTH
+    }
+
+    private static final class Sample {
+        private final Notify notify;
+        private final long start;
+        private final long build;
+        private final long allocated;
+
+        private Sample(Notify notify, long start, long build, long allocated) {
+            this.notify = notify;
+            this.start = start;
+            this.build = build;
+            this.allocated = allocated;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package notification;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class QueueBenchmark {
+
+    private NotificationQueue queue;
+    private AppRateLimiter rateLimiter;
+    private NotificationRequest normal;
+    private NotificationRequest critical;
+
+    @Setup
+    public void setUp() {
+        queue = new NotificationQueue(4096);
+        rateLimiter = new AppRateLimiter(1_000_000, 1_000);
+        normal = new NotificationRequest.Builder().title("normal").appName("bench").build();
+        critical = new NotificationRequest.Builder().title("critical").appName("bench")
+                .priority(Notify.Priority.CRITICAL).build();
+    }
+
+    @Benchmark
+    @Group("queue")
+    @GroupThreads(3)
+    public NotificationDispatcher.SubmitResult offer() throws InterruptedException {
+        return queue.offer(new NotificationQueue.Entry(normal, System.nanoTime(), false),
+                NotificationDispatcher.BackpressurePolicy.DROP_OLDEST);
+    }
+
+    @Benchmark
+    @Group("queue")
+    @GroupThreads(1)
+    public NotificationQueue.Entry poll() {
+        return queue.poll(Notify.Priority.LOW);
+    }
+
+    @Benchmark
+    @Group("critical")
+    public NotificationDispatcher.SubmitResult offerCritical() throws InterruptedException {
+        NotificationDispatcher.SubmitResult result = queue.offer(
+                new NotificationQueue.Entry(critical, System.nanoTime(), false),
+                NotificationDispatcher.BackpressurePolicy.REJECT);
+        queue.poll(Notify.Priority.CRITICAL);
+        return result;
+    }
+
+    @Benchmark
+    @Group("rateLimit")
+    public boolean tryAcquire() {
+        return rateLimiter.tryAcquire("bench", System.nanoTime());
+    }
+}
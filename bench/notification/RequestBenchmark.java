@@ -0,0 +1,51 @@
+package notification;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class RequestBenchmark {
+
+    private final NotificationParameters parameters = new NotificationParameters();
+
+    @Benchmark
+    public NotificationRequest plainRequest() {
+        return new NotificationRequest.Builder()
+                .title("Build finished")
+                .message("All 42 tests passed")
+                .appName("CI")
+                .build();
+    }
+
+    @Benchmark
+    public NotificationRequest interactiveRequest() {
+        return new NotificationRequest.Builder()
+                .title("Deploy?")
+                .message("Version 1.4.2 is ready")
+                .appName("CD")
+                .animation(Notify.Animation.ROTATE)
+                .iconBorder(Notify.Border.SQUARE)
+                .sound(Notify.Sounds.TELEGRAM)
+                .priority(Notify.Priority.HIGH)
+                .textInput()
+                .comboBox("staging", "staging", "production", "canary")
+                .okButton("OK", event -> {
+                })
+                .cancelButton("CANCEL", event -> {
+                })
+                .build();
+    }
+
+    @Benchmark
+    public NotificationParameters copyParameters() {
+        return new NotificationParameters(parameters);
+    }
+}
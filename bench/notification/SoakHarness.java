@@ -0,0 +1,122 @@
+package notification;
+
+import javafx.application.Platform;
+import javafx.stage.Stage;
+import javafx.util.Duration;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+
+// Opens and closes notifications in batches on a headless Monocle toolkit and fails if the heap keeps growing
+// or a closed notification stays reachable. Usage: SoakHarness [notifications] [batch]
+public class SoakHarness {
+
+    private static final int CHECKPOINTS = 10;
+    private static final long MAX_GROWTH_BYTES = 4L * 1024 * 1024;
+
+    private final Stage primaryStage;
+
+    private SoakHarness(Stage primaryStage) {
+        this.primaryStage = primaryStage;
+    }
+
+    public static void main(String[] args) throws Exception {
+        int total = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int batch = args.length > 1 ? Integer.parseInt(args[1]) : 100;
+
+        System.setProperty("glass.platform", "Monocle");
+        System.setProperty("monocle.platform", "Headless");
+        System.setProperty("prism.order", "sw");
+        System.setProperty("prism.text", "t2k");
+
+        CountDownLatch started = new CountDownLatch(1);
+        Platform.startup(started::countDown);
+        started.await();
+
+        SoakHarness harness = new SoakHarness(onFx(Stage::new));
+        onFx(() -> {
+            // Close animations finish immediately, so a batch is fully released before the next one starts
+            AnimationDriver.getInstance().setReducedMotion(true);
+            NotificationStack.getInstance().setMaxVisible(batch);
+            LeakDetector.getInstance().setGracePeriod(Duration.ZERO);
+            LeakDetector.getInstance().setEnabled(true);
+            return null;
+        });
+
+        boolean passed = harness.run(total, batch);
+        Platform.exit();
+        System.exit(passed ? 0 : 1);
+    }
+
+    private boolean run(int total, int batch) throws Exception {
+        int perCheckpoint = Math.max(1, total / CHECKPOINTS);
+        long baseline = -1;
+        long last = 0;
+
+        System.out.println("notifications,heap_bytes");
+        for (int opened = 0; opened < total; ) {
+            int first = opened;
+            int count = Math.min(batch, total - opened);
+            onFx(() -> {
+                Notify[] batchOpen = new Notify[count];
+                for (int i = 0; i < count; i++) {
+                    batchOpen[i] = builder(first + i).build();
+                }
+                for (Notify notify : batchOpen) {
+                    notify.close();
+                }
+                return null;
+            });
+            opened += count;
+
+            if (opened % perCheckpoint == 0 || opened == total) {
+                last = usedHeap();
+                // The first checkpoint is the baseline, once pools, caches and the JIT have warmed up
+                if (baseline < 0) {
+                    baseline = last;
+                }
+                System.out.println(opened + "," + last);
+            }
+        }
+
+        usedHeap();
+        List<String> leaked = onFx(LeakDetector.getInstance()::check);
+        long growth = last - baseline;
+        System.out.println("growth_bytes," + growth);
+        System.out.println("leaked," + leaked.size() + " of " + LeakDetector.getInstance().getTrackedCount() + " uncollected");
+        return growth <= MAX_GROWTH_BYTES && leaked.isEmpty();
+    }
+
+    private Notify.Builder builder(int index) {
+        return new Notify.Builder(primaryStage)
+                .title("Soak " + index)
+                .message("Notification " + index + " of the soak run")
+                .appName("SoakHarness")
+                .waitTime(Notify.Durability.SHORT)
+                .textInput()
+                .comboBox("a", "a", "b", "c")
+                .okButton("OK", event -> {
+                })
+                .cancelButton("CANCEL", event -> {
+                });
+    }
+
+    private static long usedHeap() throws InterruptedException {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            TimeUnit.MILLISECONDS.sleep(100);
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    private static <T> T onFx(Callable<T> callable) throws InterruptedException, ExecutionException {
+        FutureTask<T> task = new FutureTask<>(callable);
+        Platform.runLater(task);
+        return task.get();
+    }
+}
@@ -0,0 +1,32 @@
+#!/bin/sh
+# Builds an AppCDS archive of the classes a notification needs, so a fresh JVM does not load and verify them again.
+# Usage: scripts/appcds.sh <classpath> <javafx-module-path> [java options...]
+# Then run the application with -XX:SharedArchiveFile=build/appcds/notify.jsa, the same module path and the same
+# classpath; a directory classpath is packed into build/appcds/notify.jar, which is the one to run with.
+# The training run shows real popups, so it needs a display; CDS is disabled when --patch-module is used (Monocle).
+set -e
+
+CLASSPATH=${1:?usage: appcds.sh <classpath> <javafx-module-path> [java options...]}
+MODULE_PATH=${2:?usage: appcds.sh <classpath> <javafx-module-path> [java options...]}
+shift 2
+OUT=${OUT:-build/appcds}
+JAVA=${JAVA:-java}
+mkdir -p "$OUT"
+
+# CDS only archives classes from jars, so a compiler output directory is packed into one first
+if [ -d "$CLASSPATH" ]; then
+    "${JAR:-jar}" --create --file "$OUT/notify.jar" -C "$CLASSPATH" .
+    CLASSPATH="$OUT/notify.jar"
+fi
+
+# 1. Training run: warm up, show and close notifications, and record every class that got loaded
+"$JAVA" -Xshare:off -XX:DumpLoadedClassList="$OUT/notify.classlist" "$@" \
+    --module-path "$MODULE_PATH" --add-modules javafx.controls,javafx.media \
+    -cp "$CLASSPATH" notification.ColdStartHarness warm "$OUT/training.csv" training 20
+
+# 2. Static archive of those classes on top of the JDK's default one
+"$JAVA" -Xshare:dump -XX:SharedClassListFile="$OUT/notify.classlist" -XX:SharedArchiveFile="$OUT/notify.jsa" "$@" \
+    --module-path "$MODULE_PATH" --add-modules javafx.controls,javafx.media \
+    -cp "$CLASSPATH"
+
+echo "Archive written to $OUT/notify.jsa ($(wc -l < "$OUT/notify.classlist") classes)"
@@ -0,0 +1,47 @@
+package notification;
+
+import javafx.util.Duration;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+// Runs asynchronous button actions away from the FX thread
+public class ActionExecutor {
+
+    private static final ActionExecutor INSTANCE = new ActionExecutor();
+
+    private final ExecutorService executor = createExecutor();
+
+    private ActionExecutor() {
+    }
+
+    public static ActionExecutor getInstance() {
+        return INSTANCE;
+    }
+
+    // The future fails with a TimeoutException once the timeout passes; the action itself is not interrupted
+    CompletableFuture<Void> run(Consumer<NotificationResponse> action, NotificationResponse response, Duration timeout) {
+        CompletableFuture<Void> future = CompletableFuture.runAsync(() -> action.accept(response), executor);
+        if (!timeout.isIndefinite()) {
+            future = future.orTimeout((long) timeout.toMillis(), TimeUnit.MILLISECONDS);
+        }
+        return future;
+    }
+
+    // Virtual threads when the runtime has them (JDK 21+), otherwise a pool of daemon threads
+    private static ExecutorService createExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool(runnable -> {
+                Thread thread = Executors.defaultThreadFactory().newThread(runnable);
+                thread.setName("notify-action");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+}
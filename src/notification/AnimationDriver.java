@@ -0,0 +1,155 @@
+package notification;
+
+import javafx.animation.AnimationTimer;
+import javafx.animation.Interpolator;
+import javafx.scene.CacheHint;
+import javafx.scene.Node;
+import javafx.util.Duration;
+
+import java.util.ArrayList;
+import java.util.function.DoubleConsumer;
+
+public class AnimationDriver {
+
+    private static final AnimationDriver INSTANCE = new AnimationDriver();
+    private static final int DEFAULT_REDUCED_MOTION_THRESHOLD = 30;
+
+    private final ArrayList<Motion> active = new ArrayList<>();
+    private final ArrayList<Motion> finished = new ArrayList<>();
+    private final AnimationTimer timer;
+    private boolean running;
+    private boolean reducedMotion;
+    private int reducedMotionThreshold = DEFAULT_REDUCED_MOTION_THRESHOLD;
+
+    private AnimationDriver() {
+        timer = new AnimationTimer() {
+            @Override
+            public void handle(long now) {
+                step(now);
+            }
+        };
+    }
+
+    public static AnimationDriver getInstance() {
+        return INSTANCE;
+    }
+
+    public void setReducedMotion(boolean reducedMotion) {
+        this.reducedMotion = reducedMotion;
+    }
+
+    public boolean isReducedMotion() {
+        return reducedMotion;
+    }
+
+    public void setReducedMotionThreshold(int reducedMotionThreshold) {
+        if (reducedMotionThreshold <= 0) {
+            throw new IllegalArgumentException("reducedMotionThreshold must be positive");
+        }
+
+        this.reducedMotionThreshold = reducedMotionThreshold;
+    }
+
+    public int getReducedMotionThreshold() {
+        return reducedMotionThreshold;
+    }
+
+    public int getActiveCount() {
+        return active.size();
+    }
+
+    Motion animate(Node node, Duration duration, DoubleConsumer update, Runnable onFinished) {
+        Motion motion = new Motion(node, duration.toMillis() * 1_000_000, update, onFinished);
+
+        // Past the threshold new animations jump straight to their end state
+        if (reducedMotion || active.size() >= reducedMotionThreshold) {
+            motion.complete();
+            return motion;
+        }
+
+        if (node != null) {
+            node.setCache(true);
+            node.setCacheHint(CacheHint.SPEED);
+        }
+
+        active.add(motion);
+        if (!running) {
+            running = true;
+            timer.start();
+        }
+        return motion;
+    }
+
+    private void step(long now) {
+        for (int i = 0; i < active.size(); i++) {
+            Motion motion = active.get(i);
+            if (motion.startedAt < 0) {
+                motion.startedAt = now;
+            }
+
+            double progress = motion.duration <= 0 ? 1 : Math.min(1, (now - motion.startedAt) / motion.duration);
+            motion.update.accept(Interpolator.EASE_BOTH.interpolate(0.0, 1.0, progress));
+            if (progress >= 1) {
+                finished.add(motion);
+            }
+        }
+
+        if (!finished.isEmpty()) {
+            active.removeAll(finished);
+            for (Motion motion : finished) {
+                motion.finish();
+            }
+            finished.clear();
+        }
+
+        if (active.isEmpty()) {
+            timer.stop();
+            running = false;
+        }
+    }
+
+    class Motion {
+        private final Node node;
+        private final double duration;
+        private final DoubleConsumer update;
+        private final Runnable onFinished;
+        private long startedAt = -1;
+        private boolean done;
+
+        private Motion(Node node, double duration, DoubleConsumer update, Runnable onFinished) {
+            this.node = node;
+            this.duration = duration;
+            this.update = update;
+            this.onFinished = onFinished;
+        }
+
+        void stop() {
+            if (!done) {
+                active.remove(this);
+                release();
+            }
+        }
+
+        private void complete() {
+            update.accept(1.0);
+            finish();
+        }
+
+        private void finish() {
+            if (done) {
+                return;
+            }
+            release();
+            if (onFinished != null) {
+                onFinished.run();
+            }
+        }
+
+        private void release() {
+            done = true;
+            if (node != null) {
+                node.setCache(false);
+            }
+        }
+    }
+}
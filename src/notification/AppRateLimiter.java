@@ -0,0 +1,75 @@
+package notification;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+class AppRateLimiter {
+
+    private final double permitsPerSecond;
+    private final double burst;
+    private final ConcurrentHashMap<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+
+    AppRateLimiter(double permitsPerSecond, int burst) {
+        if (permitsPerSecond <= 0 || burst <= 0) {
+            throw new IllegalArgumentException("rate and burst must be positive");
+        }
+
+        this.permitsPerSecond = permitsPerSecond;
+        this.burst = burst;
+    }
+
+    boolean tryAcquire(String appName, long now) {
+        return bucket(appName, now).tryAcquire(now);
+    }
+
+    long reserve(String appName, long now) {
+        return bucket(appName, now).reserve(now);
+    }
+
+    // Gives back a token taken by reserve when the reserved notification was dropped after all
+    void refund(String appName, long now) {
+        bucket(appName, now).refund();
+    }
+
+    private TokenBucket bucket(String appName, long now) {
+        return buckets.computeIfAbsent(appName == null ? "" : appName, key -> new TokenBucket(burst, now));
+    }
+
+    private final class TokenBucket {
+        private double tokens;
+        private long refilledAt;
+
+        private TokenBucket(double tokens, long now) {
+            this.tokens = tokens;
+            this.refilledAt = now;
+        }
+
+        private synchronized boolean tryAcquire(long now) {
+            refill(now);
+            if (tokens < 1) {
+                return false;
+            }
+
+            tokens--;
+            return true;
+        }
+
+        // Takes a token even if the bucket is empty and returns how long the caller has to wait for it
+        private synchronized long reserve(long now) {
+            refill(now);
+            tokens--;
+            return tokens >= 0 ? 0 : (long) (-tokens / permitsPerSecond * 1e9);
+        }
+
+        private synchronized void refund() {
+            tokens = Math.min(burst, tokens + 1);
+        }
+
+        private void refill(long now) {
+            double elapsedSeconds = (now - refilledAt) / 1e9;
+            if (elapsedSeconds > 0) {
+                tokens = Math.min(burst, tokens + elapsedSeconds * permitsPerSecond);
+                refilledAt = now;
+            }
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package notification;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+public final class HistoryEntry {
+
+    private static final int MAX_STRING_LENGTH = 4096;
+    static final int MAX_ENCODED_SIZE = 8 * 3 + 4 + 7 + 6 * (4 + MAX_STRING_LENGTH * 3);
+
+    private final long sequence;
+    private final long shownAt;
+    private final long closedAt;
+    private final int count;
+    private final Notify.Outcome outcome;
+    private final Notify.Priority priority;
+    private final Notify.Position position;
+    private final Notify.Durability waitTime;
+    private final Notify.Animation animation;
+    private final Notify.Border iconBorder;
+    private final Notify.Sounds sound;
+    private final String title;
+    private final String message;
+    private final String appName;
+    private final String iconPathURL;
+    private final String textFieldValue;
+    private final String comboBoxValue;
+
+    HistoryEntry(long sequence, long shownAt, long closedAt, int count, Notify.Outcome outcome,
+                 NotificationParameters parameters, String title, String message, String appName,
+                 String textFieldValue, String comboBoxValue) {
+        this(sequence, shownAt, closedAt, count, outcome, parameters.getPriority(), parameters.getPosition(),
+                parameters.getWaitTime(), parameters.getAnimation(), parameters.getIconBorder(), parameters.getSound(),
+                title, message, appName, parameters.getIconPathURL(), textFieldValue, comboBoxValue);
+    }
+
+    private HistoryEntry(long sequence, long shownAt, long closedAt, int count, Notify.Outcome outcome,
+                         Notify.Priority priority, Notify.Position position, Notify.Durability waitTime,
+                         Notify.Animation animation, Notify.Border iconBorder, Notify.Sounds sound,
+                         String title, String message, String appName, String iconPathURL,
+                         String textFieldValue, String comboBoxValue) {
+        this.sequence = sequence;
+        this.shownAt = shownAt;
+        this.closedAt = closedAt;
+        this.count = count;
+        this.outcome = outcome;
+        this.priority = priority;
+        this.position = position;
+        this.waitTime = waitTime;
+        this.animation = animation;
+        this.iconBorder = iconBorder;
+        this.sound = sound;
+        this.title = title;
+        this.message = message;
+        this.appName = appName;
+        this.iconPathURL = iconPathURL;
+        this.textFieldValue = textFieldValue;
+        this.comboBoxValue = comboBoxValue;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    // 0 when the notification was closed while still waiting for a free slot
+    public long getShownAt() {
+        return shownAt;
+    }
+
+    public long getClosedAt() {
+        return closedAt;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public Notify.Outcome getOutcome() {
+        return outcome;
+    }
+
+    public Notify.Priority getPriority() {
+        return priority;
+    }
+
+    public Notify.Position getPosition() {
+        return position;
+    }
+
+    public Notify.Durability getWaitTime() {
+        return waitTime;
+    }
+
+    public Notify.Animation getAnimation() {
+        return animation;
+    }
+
+    public Notify.Border getIconBorder() {
+        return iconBorder;
+    }
+
+    public Notify.Sounds getSound() {
+        return sound;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public String getAppName() {
+        return appName;
+    }
+
+    public String getIconPathURL() {
+        return iconPathURL;
+    }
+
+    public String getTextFieldValue() {
+        return textFieldValue;
+    }
+
+    public String getComboBoxValue() {
+        return comboBoxValue;
+    }
+
+    // ========
+    // Encoding
+    // ========
+
+    void encode(ByteBuffer buffer, long sequence) {
+        buffer.putLong(sequence);
+        buffer.putLong(shownAt);
+        buffer.putLong(closedAt);
+        buffer.putInt(count);
+        buffer.put((byte) outcome.ordinal());
+        buffer.put((byte) priority.ordinal());
+        buffer.put((byte) position.ordinal());
+        buffer.put((byte) waitTime.ordinal());
+        buffer.put((byte) animation.ordinal());
+        buffer.put((byte) iconBorder.ordinal());
+        buffer.put((byte) (sound == null ? -1 : sound.ordinal()));
+        putString(buffer, title);
+        putString(buffer, message);
+        putString(buffer, appName);
+        putString(buffer, iconPathURL);
+        putString(buffer, textFieldValue);
+        putString(buffer, comboBoxValue);
+    }
+
+    static HistoryEntry decode(ByteBuffer buffer) {
+        return new HistoryEntry(buffer.getLong(), buffer.getLong(), buffer.getLong(), buffer.getInt(),
+                Notify.Outcome.values()[buffer.get()],
+                Notify.Priority.values()[buffer.get()],
+                Notify.Position.values()[buffer.get()],
+                Notify.Durability.values()[buffer.get()],
+                Notify.Animation.values()[buffer.get()],
+                Notify.Border.values()[buffer.get()],
+                sound(buffer.get()),
+                getString(buffer), getString(buffer), getString(buffer),
+                getString(buffer), getString(buffer), getString(buffer));
+    }
+
+    // A silent notification is stored as -1
+    private static Notify.Sounds sound(byte ordinal) {
+        return ordinal < 0 ? null : Notify.Sounds.values()[ordinal];
+    }
+
+    private static void putString(ByteBuffer buffer, String value) {
+        if (value == null) {
+            buffer.putInt(-1);
+            return;
+        }
+
+        String bounded = value;
+        if (value.length() > MAX_STRING_LENGTH) {
+            // Never cut between the two halves of a surrogate pair
+            int end = MAX_STRING_LENGTH;
+            if (Character.isHighSurrogate(value.charAt(end - 1))) {
+                end--;
+            }
+            bounded = value.substring(0, end);
+        }
+        byte[] bytes = bounded.getBytes(StandardCharsets.UTF_8);
+        buffer.putInt(bytes.length);
+        buffer.put(bytes);
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,138 @@
+package notification;
+
+import javafx.scene.image.Image;
+import javafx.scene.paint.ImagePattern;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class IconCache {
+
+    static final int ICON_SIZE = 80;
+
+    private static final IconCache INSTANCE = new IconCache();
+    private static final long DEFAULT_MAX_BYTES = 16L * 1024 * 1024;
+    private static final long BYTES_PER_PIXEL = 4;
+
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private long maxBytes = DEFAULT_MAX_BYTES;
+    private long cachedBytes;
+
+    private IconCache() {
+    }
+
+    public static IconCache getInstance() {
+        return INSTANCE;
+    }
+
+    public synchronized void setMaxBytes(long maxBytes) {
+        if (maxBytes < 0) {
+            throw new IllegalArgumentException("maxBytes must not be negative");
+        }
+
+        this.maxBytes = maxBytes;
+        evict();
+    }
+
+    public synchronized long getMaxBytes() {
+        return maxBytes;
+    }
+
+    public synchronized long getCachedBytes() {
+        return cachedBytes;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        cachedBytes = 0;
+    }
+
+    synchronized Entry get(String url, Notify.Border border) {
+        String key = border + "|" + url;
+        Entry entry = entries.get(key);
+
+        if (entry != null && !entry.image.isError()) {
+            hits.incrementAndGet();
+            return entry;
+        }
+
+        misses.incrementAndGet();
+        if (entry != null) {
+            remove(key);
+        }
+
+        // Decode straight to the icon size in the background; the popup shows a placeholder meanwhile
+        entry = new Entry(new Image(url, ICON_SIZE, ICON_SIZE, false, true, true));
+        entries.put(key, entry);
+        cachedBytes += entry.weight;
+        evict();
+
+        entry.image.errorProperty().addListener((observable, oldValue, error) -> {
+            if (error) {
+                removeIfSame(key, observable);
+            }
+        });
+
+        return entry;
+    }
+
+    private synchronized void removeIfSame(String key, Object errorProperty) {
+        Entry entry = entries.get(key);
+        if (entry != null && entry.image.errorProperty() == errorProperty) {
+            remove(key);
+        }
+    }
+
+    private void remove(String key) {
+        Entry entry = entries.remove(key);
+        if (entry != null) {
+            cachedBytes -= entry.weight;
+        }
+    }
+
+    private void evict() {
+        Iterator<Map.Entry<String, Entry>> iterator = entries.entrySet().iterator();
+        while (cachedBytes > maxBytes && iterator.hasNext()) {
+            cachedBytes -= iterator.next().getValue().weight;
+            iterator.remove();
+        }
+    }
+
+    static final class Entry {
+        final Image image;
+        private final long weight;
+        private ImagePattern pattern;
+
+        private Entry(Image image) {
+            this.image = image;
+            this.weight = (long) ICON_SIZE * ICON_SIZE * BYTES_PER_PIXEL;
+        }
+
+        boolean isLoaded() {
+            return image.getProgress() >= 1 && !image.isError();
+        }
+
+        ImagePattern getPattern() {
+            if (pattern == null) {
+                pattern = new ImagePattern(image);
+            }
+            return pattern;
+        }
+    }
+}
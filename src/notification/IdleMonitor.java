@@ -0,0 +1,93 @@
+package notification;
+
+import javafx.geometry.Point2D;
+import javafx.scene.robot.Robot;
+import javafx.util.Duration;
+
+import java.util.ArrayList;
+import java.util.concurrent.ScheduledFuture;
+
+// Decides whether the user is away from a still cursor; the cursor is the only input we can see outside our own windows
+public final class IdleMonitor {
+
+    private static final IdleMonitor INSTANCE = new IdleMonitor();
+    private static final Duration DEFAULT_THRESHOLD = Duration.minutes(1);
+    private static final Duration POLL_INTERVAL = Duration.seconds(1);
+
+    private final ArrayList<Runnable> listeners = new ArrayList<>();
+    private Duration threshold = DEFAULT_THRESHOLD;
+    private Robot robot;
+    private ScheduledFuture<?> poll;
+    private double lastX = Double.NaN;
+    private double lastY = Double.NaN;
+    private long lastMovedAt;
+    private boolean idle;
+
+    private IdleMonitor() {
+    }
+
+    public static IdleMonitor getInstance() {
+        return INSTANCE;
+    }
+
+    public void setIdleThreshold(Duration threshold) {
+        if (threshold == null || threshold.lessThanOrEqualTo(Duration.ZERO)) {
+            throw new IllegalArgumentException("threshold must be positive");
+        }
+        this.threshold = threshold;
+    }
+
+    public Duration getIdleThreshold() {
+        return threshold;
+    }
+
+    public boolean isIdle() {
+        return idle;
+    }
+
+    // The cursor is only polled while an idle-aware notification is waiting to expire
+    void addListener(Runnable listener) {
+        listeners.add(listener);
+        if (poll == null) {
+            lastX = Double.NaN;
+            lastY = Double.NaN;
+            lastMovedAt = System.nanoTime();
+            idle = false;
+            poll = NotificationScheduler.getInstance().repeat(POLL_INTERVAL, this::poll);
+        }
+    }
+
+    void removeListener(Runnable listener) {
+        if (listeners.remove(listener) && listeners.isEmpty()) {
+            poll.cancel(false);
+            poll = null;
+            idle = false;
+        }
+    }
+
+    private void poll() {
+        // A tick may already be queued on the FX thread when the last listener goes away
+        if (poll == null) {
+            return;
+        }
+
+        if (robot == null) {
+            robot = new Robot();
+        }
+        Point2D cursor = robot.getMousePosition();
+        long now = System.nanoTime();
+        if (cursor.getX() != lastX || cursor.getY() != lastY) {
+            lastX = cursor.getX();
+            lastY = cursor.getY();
+            lastMovedAt = now;
+        }
+
+        boolean away = now - lastMovedAt >= (long) (threshold.toMillis() * 1_000_000);
+        if (away != idle) {
+            idle = away;
+            for (int i = 0; i < listeners.size(); i++) {
+                listeners.get(i).run();
+            }
+        }
+    }
+}
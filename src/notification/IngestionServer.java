@@ -0,0 +1,256 @@
+package notification;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.concurrent.atomic.LongAdder;
+
+// Accepts newline-delimited JSON notification frames from other local processes, e.g.
+// {"title":"Build failed","message":"main is red","appName":"CI","priority":"HIGH"}
+public final class IngestionServer implements Closeable {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int MAX_POOLED_BUFFERS = 64;
+
+    private final NotificationDispatcher dispatcher;
+    private final ServerSocketChannel server;
+    private final Selector selector;
+    private final Path socketFile;
+    private final Thread loop;
+    private final JsonFrameParser parser = new JsonFrameParser();
+    private final ArrayDeque<ByteBuffer> bufferPool = new ArrayDeque<>();
+
+    private final LongAdder received = new LongAdder();
+    private final LongAdder malformed = new LongAdder();
+    private volatile int connections;
+    private volatile boolean running = true;
+
+    private IngestionServer(NotificationDispatcher dispatcher, ServerSocketChannel server, Path socketFile)
+            throws IOException {
+        this.dispatcher = dispatcher;
+        this.server = server;
+        this.socketFile = socketFile;
+        this.selector = Selector.open();
+
+        server.configureBlocking(false);
+        server.register(selector, SelectionKey.OP_ACCEPT);
+
+        loop = new Thread(this::selectLoop, "notify-ingest");
+        loop.setDaemon(true);
+        loop.start();
+    }
+
+    // Binds to the loopback interface only, pass 0 to pick a free port
+    public static IngestionServer tcp(NotificationDispatcher dispatcher, int port) throws IOException {
+        ServerSocketChannel server = ServerSocketChannel.open();
+        server.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+        return new IngestionServer(dispatcher, server, null);
+    }
+
+    public static IngestionServer unixSocket(NotificationDispatcher dispatcher, Path socketFile) throws IOException {
+        Files.deleteIfExists(socketFile);
+        ServerSocketChannel server = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+        server.bind(UnixDomainSocketAddress.of(socketFile));
+        return new IngestionServer(dispatcher, server, socketFile);
+    }
+
+    public SocketAddress getLocalAddress() throws IOException {
+        return server.getLocalAddress();
+    }
+
+    public int getConnectionCount() {
+        return connections;
+    }
+
+    public long getReceivedCount() {
+        return received.sum();
+    }
+
+    public long getMalformedCount() {
+        return malformed.sum();
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        selector.wakeup();
+        try {
+            loop.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // ===========
+    // Select loop
+    // ===========
+
+    private void selectLoop() {
+        try {
+            while (running) {
+                selector.select();
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    if (!key.isValid()) {
+                        continue;
+                    }
+
+                    if (key.isAcceptable()) {
+                        accept();
+                    } else if (key.isReadable()) {
+                        read(key);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        } finally {
+            shutdown();
+        }
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel = server.accept();
+        if (channel == null) {
+            return;
+        }
+
+        channel.configureBlocking(false);
+        channel.register(selector, SelectionKey.OP_READ, new Connection(acquireBuffer()));
+        connections++;
+    }
+
+    private void read(SelectionKey key) {
+        SocketChannel channel = (SocketChannel) key.channel();
+        Connection connection = (Connection) key.attachment();
+        ByteBuffer buffer = connection.buffer;
+
+        int read;
+        try {
+            read = channel.read(buffer);
+        } catch (IOException e) {
+            read = -1;
+        }
+
+        if (read > 0 || buffer.position() > 0) {
+            frames(connection);
+        }
+        if (read < 0) {
+            // A last frame without a trailing newline still counts
+            if (buffer.position() > 0 && !connection.discarding) {
+                submit(buffer.array(), 0, buffer.position());
+            }
+            disconnect(key);
+        }
+    }
+
+    // Every complete line in the buffer is one frame, a partial line is compacted to the front
+    private void frames(Connection connection) {
+        ByteBuffer buffer = connection.buffer;
+        byte[] bytes = buffer.array();
+        int limit = buffer.position();
+        int start = 0;
+        for (int i = 0; i < limit; i++) {
+            if (bytes[i] != '\n') {
+                continue;
+            }
+
+            if (connection.discarding) {
+                connection.discarding = false;
+            } else if (i > start) {
+                submit(bytes, start, i);
+            }
+            start = i + 1;
+        }
+
+        if (start > 0) {
+            System.arraycopy(bytes, start, bytes, 0, limit - start);
+            buffer.position(limit - start);
+        } else if (!buffer.hasRemaining()) {
+            // A frame larger than the buffer is dropped up to its newline
+            if (!connection.discarding) {
+                malformed.increment();
+                connection.discarding = true;
+            }
+            buffer.clear();
+        }
+    }
+
+    private void submit(byte[] bytes, int from, int to) {
+        NotificationRequest request;
+        try {
+            request = parser.parse(bytes, from, to);
+        } catch (IllegalArgumentException e) {
+            malformed.increment();
+            return;
+        }
+
+        received.increment();
+        dispatcher.submit(request);
+    }
+
+    private void disconnect(SelectionKey key) {
+        key.cancel();
+        releaseBuffer(((Connection) key.attachment()).buffer);
+        try {
+            key.channel().close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        connections--;
+    }
+
+    private void shutdown() {
+        for (SelectionKey key : selector.keys()) {
+            if (key.attachment() instanceof Connection) {
+                disconnect(key);
+            }
+        }
+
+        try {
+            selector.close();
+            server.close();
+            if (socketFile != null) {
+                Files.deleteIfExists(socketFile);
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private ByteBuffer acquireBuffer() {
+        ByteBuffer buffer = bufferPool.poll();
+        return buffer != null ? buffer : ByteBuffer.allocate(BUFFER_SIZE);
+    }
+
+    private void releaseBuffer(ByteBuffer buffer) {
+        if (bufferPool.size() < MAX_POOLED_BUFFERS) {
+            buffer.clear();
+            bufferPool.add(buffer);
+        }
+    }
+
+    private static final class Connection {
+        private final ByteBuffer buffer;
+        private boolean discarding;
+
+        private Connection(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+    }
+}
@@ -0,0 +1,247 @@
+package notification;
+
+import javafx.util.Duration;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+// Parses one flat JSON object straight from the read buffer into a NotificationRequest.
+// Nested objects and arrays are rejected, unknown keys are skipped.
+final class JsonFrameParser {
+
+    private byte[] bytes;
+    private int position;
+    private int end;
+    private byte[] scratch = new byte[256];
+
+    NotificationRequest parse(byte[] bytes, int from, int to) {
+        this.bytes = bytes;
+        this.position = from;
+        this.end = to;
+
+        NotificationRequest.Builder builder = new NotificationRequest.Builder();
+        expect('{');
+        if (peek() == '}') {
+            position++;
+        } else {
+            do {
+                String key = readString();
+                expect(':');
+                apply(builder, key);
+            } while (next(',', '}'));
+        }
+
+        skipWhitespace();
+        if (position != end) {
+            throw malformed("trailing data");
+        }
+        return builder.build();
+    }
+
+    private void apply(NotificationRequest.Builder builder, String key) {
+        switch (key) {
+            case "title" -> builder.title(readString());
+            case "message" -> builder.message(readString());
+            case "appName" -> builder.appName(readString());
+            case "dedupKey" -> builder.dedupKey(readString());
+            case "iconPathURL" -> builder.iconPathURL(readString());
+            case "textColorTitle" -> builder.textColorTitle(readString());
+            case "textColorMessage" -> builder.textColorMessage(readString());
+            case "backgroundColor" -> builder.backgroundColor(readString());
+            case "backgroundOpacity" -> builder.backgroundOpacity(readNumber());
+            case "groupByAppMillis" -> builder.groupByApp(Duration.millis(readNumber()));
+            case "priority" -> builder.priority(Notify.Priority.valueOf(readString()));
+            case "position" -> builder.position(Notify.Position.valueOf(readString()));
+            case "target" -> builder.target(Notify.Target.valueOf(readString()));
+            case "waitTime" -> builder.waitTime(Notify.Durability.valueOf(readString()));
+            case "animation" -> builder.animation(Notify.Animation.valueOf(readString()));
+            case "iconBorder" -> builder.iconBorder(Notify.Border.valueOf(readString()));
+            case "sound" -> builder.sound(Notify.Sounds.valueOf(readString()));
+            case "messagePreviewLines" -> builder.messagePreviewLines((int) readNumber());
+            case "idleAware" -> {
+                if (readBoolean()) {
+                    builder.idleAware();
+                }
+            }
+            default -> skipValue();
+        }
+    }
+
+    private String readString() {
+        expect('"');
+        int start = position;
+        while (position < end) {
+            byte b = bytes[position];
+            if (b == '"') {
+                return new String(bytes, start, position++ - start, StandardCharsets.UTF_8);
+            }
+            if (b == '\\') {
+                return readEscapedString(start);
+            }
+            position++;
+        }
+        throw malformed("unterminated string");
+    }
+
+    // Slow path, only taken by strings that contain an escape
+    private String readEscapedString(int start) {
+        int length = 0;
+        length = append(length, bytes, start, position - start);
+        while (position < end) {
+            byte b = bytes[position++];
+            if (b == '"') {
+                return new String(scratch, 0, length, StandardCharsets.UTF_8);
+            }
+            if (b != '\\') {
+                length = append(length, b);
+                continue;
+            }
+            if (position >= end) {
+                break;
+            }
+
+            byte escaped = bytes[position++];
+            switch (escaped) {
+                case '"', '\\', '/' -> length = append(length, escaped);
+                case 'b' -> length = append(length, (byte) '\b');
+                case 'f' -> length = append(length, (byte) '\f');
+                case 'n' -> length = append(length, (byte) '\n');
+                case 'r' -> length = append(length, (byte) '\r');
+                case 't' -> length = append(length, (byte) '\t');
+                case 'u' -> {
+                    int codePoint = readHex();
+                    if (Character.isHighSurrogate((char) codePoint) && position + 1 < end
+                            && bytes[position] == '\\' && bytes[position + 1] == 'u') {
+                        position += 2;
+                        codePoint = Character.toCodePoint((char) codePoint, (char) readHex());
+                    }
+                    byte[] encoded = new String(Character.toChars(codePoint)).getBytes(StandardCharsets.UTF_8);
+                    length = append(length, encoded, 0, encoded.length);
+                }
+                default -> throw malformed("bad escape");
+            }
+        }
+        throw malformed("unterminated string");
+    }
+
+    private int readHex() {
+        if (position + 4 > end) {
+            throw malformed("bad unicode escape");
+        }
+
+        int value = 0;
+        for (int i = 0; i < 4; i++) {
+            int digit = Character.digit(bytes[position++], 16);
+            if (digit < 0) {
+                throw malformed("bad unicode escape");
+            }
+            value = value << 4 | digit;
+        }
+        return value;
+    }
+
+    private double readNumber() {
+        skipWhitespace();
+        int start = position;
+        while (position < end) {
+            byte b = bytes[position];
+            if (!(b >= '0' && b <= '9' || b == '-' || b == '+' || b == '.' || b == 'e' || b == 'E')) {
+                break;
+            }
+            position++;
+        }
+        if (start == position) {
+            throw malformed("number expected");
+        }
+        return Double.parseDouble(new String(bytes, start, position - start, StandardCharsets.US_ASCII));
+    }
+
+    private boolean readBoolean() {
+        if (peek() == 't') {
+            literal("true");
+            return true;
+        }
+        literal("false");
+        return false;
+    }
+
+    private void skipValue() {
+        byte b = peek();
+        if (b == '"') {
+            readString();
+        } else if (b == 't') {
+            literal("true");
+        } else if (b == 'f') {
+            literal("false");
+        } else if (b == 'n') {
+            literal("null");
+        } else {
+            readNumber();
+        }
+    }
+
+    private void literal(String literal) {
+        for (int i = 0; i < literal.length(); i++) {
+            if (position >= end || bytes[position++] != literal.charAt(i)) {
+                throw malformed("bad literal");
+            }
+        }
+    }
+
+    private boolean next(char more, char last) {
+        byte b = peek();
+        position++;
+        if (b == more) {
+            return true;
+        }
+        if (b == last) {
+            return false;
+        }
+        throw malformed("'" + more + "' or '" + last + "' expected");
+    }
+
+    private void expect(char expected) {
+        if (peek() != expected) {
+            throw malformed("'" + expected + "' expected");
+        }
+        position++;
+    }
+
+    private byte peek() {
+        skipWhitespace();
+        if (position >= end) {
+            throw malformed("unexpected end of frame");
+        }
+        return bytes[position];
+    }
+
+    private void skipWhitespace() {
+        while (position < end) {
+            byte b = bytes[position];
+            if (b != ' ' && b != '\t' && b != '\r' && b != '\n') {
+                return;
+            }
+            position++;
+        }
+    }
+
+    private int append(int length, byte b) {
+        if (length == scratch.length) {
+            scratch = Arrays.copyOf(scratch, length * 2);
+        }
+        scratch[length] = b;
+        return length + 1;
+    }
+
+    private int append(int length, byte[] source, int from, int count) {
+        if (length + count > scratch.length) {
+            scratch = Arrays.copyOf(scratch, Math.max(scratch.length * 2, length + count));
+        }
+        System.arraycopy(source, from, scratch, length, count);
+        return length + count;
+    }
+
+    private static IllegalArgumentException malformed(String reason) {
+        return new IllegalArgumentException("Malformed notification frame: " + reason);
+    }
+}
@@ -0,0 +1,132 @@
+package notification;
+
+import javafx.util.Duration;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+
+// Debug aid: remembers every closed notification weakly and reports the ones still reachable after the grace period.
+// A notification the caller still holds on to is reported too, so enable it in soak runs rather than in production.
+public final class LeakDetector {
+
+    private static final LeakDetector INSTANCE = new LeakDetector();
+    private static final Duration DEFAULT_GRACE_PERIOD = Duration.seconds(30);
+    private static final Duration CHECK_INTERVAL = Duration.seconds(5);
+
+    private final ReferenceQueue<Notify> collected = new ReferenceQueue<>();
+    private final Set<Tracked> tracked = ConcurrentHashMap.newKeySet();
+    private final List<GarbageCollectorMXBean> collectors = ManagementFactory.getGarbageCollectorMXBeans();
+    private volatile boolean enabled;
+    private Duration gracePeriod = DEFAULT_GRACE_PERIOD;
+    private ScheduledFuture<?> check;
+    private long reported;
+
+    private LeakDetector() {
+    }
+
+    public static LeakDetector getInstance() {
+        return INSTANCE;
+    }
+
+    public synchronized void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+        if (enabled && check == null) {
+            check = NotificationScheduler.getInstance().repeat(CHECK_INTERVAL, this::check);
+        } else if (!enabled && check != null) {
+            check.cancel(false);
+            check = null;
+            tracked.clear();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public synchronized void setGracePeriod(Duration gracePeriod) {
+        if (gracePeriod == null || gracePeriod.lessThan(Duration.ZERO)) {
+            throw new IllegalArgumentException("gracePeriod must not be negative");
+        }
+        this.gracePeriod = gracePeriod;
+    }
+
+    public synchronized Duration getGracePeriod() {
+        return gracePeriod;
+    }
+
+    // Closed notifications that have not been collected yet, whether or not they are overdue
+    public int getTrackedCount() {
+        drain();
+        return tracked.size();
+    }
+
+    public synchronized long getReportedCount() {
+        return reported;
+    }
+
+    // Reports overdue notifications now; call it after System.gc() to get an exact answer at the end of a run
+    public synchronized List<String> check() {
+        drain();
+        long now = System.nanoTime();
+        long graceNanos = (long) (gracePeriod.toMillis() * 1_000_000);
+        long collections = collections();
+
+        List<String> leaked = new ArrayList<>();
+        for (Tracked reference : tracked) {
+            // Without a collection since the close an unreachable notification simply has not been cleared yet
+            if (reference.reported || now - reference.closedAt < graceNanos || collections == reference.collections) {
+                continue;
+            }
+
+            reference.reported = true;
+            reported++;
+            leaked.add(reference.description);
+            System.err.println("Notification " + reference.description + " is still reachable "
+                    + (now - reference.closedAt) / 1_000_000 + " ms after it closed");
+        }
+        return leaked;
+    }
+
+    void closed(Notify notify, String description) {
+        if (enabled) {
+            tracked.add(new Tracked(notify, description, System.nanoTime(), collections(), collected));
+        }
+    }
+
+    private void drain() {
+        Object reference;
+        while ((reference = collected.poll()) != null) {
+            tracked.remove(reference);
+        }
+    }
+
+    private long collections() {
+        long count = 0;
+        for (int i = 0; i < collectors.size(); i++) {
+            count += Math.max(0, collectors.get(i).getCollectionCount());
+        }
+        return count;
+    }
+
+    private static final class Tracked extends WeakReference<Notify> {
+        private final String description;
+        private final long closedAt;
+        private final long collections;
+        private boolean reported;
+
+        private Tracked(Notify notify, String description, long closedAt, long collections,
+                        ReferenceQueue<Notify> queue) {
+            super(notify, queue);
+            this.description = description;
+            this.closedAt = closedAt;
+            this.collections = collections;
+        }
+    }
+}
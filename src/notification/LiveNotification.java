@@ -0,0 +1,69 @@
+package notification;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+// Thread-safe handle on a shown notification. Every setter only overwrites a latest-value slot;
+// the FX thread applies whatever is in the slots at most once per pulse
+public final class LiveNotification {
+
+    private static final String UNCHANGED = new String("");
+    private static final long NO_PROGRESS = Long.MIN_VALUE;
+
+    private final Notify notify;
+    private final AtomicReference<String> title = new AtomicReference<>(UNCHANGED);
+    private final AtomicReference<String> message = new AtomicReference<>(UNCHANGED);
+    private final AtomicLong progress = new AtomicLong(NO_PROGRESS);
+    private final AtomicBoolean closeRequested = new AtomicBoolean();
+    private final AtomicBoolean dirty = new AtomicBoolean();
+
+    LiveNotification(Notify notify) {
+        this.notify = notify;
+    }
+
+    public Notify getNotify() {
+        return notify;
+    }
+
+    public void setTitle(String title) {
+        this.title.set(title);
+        markDirty();
+    }
+
+    public void updateMessage(String message) {
+        this.message.set(message);
+        markDirty();
+    }
+
+    // 0..1, or a negative value for an indeterminate bar; the bar appears on the first call
+    public void setProgress(double progress) {
+        this.progress.set(Double.doubleToRawLongBits(progress == 0 ? 0.0 : progress));
+        markDirty();
+    }
+
+    public void close() {
+        closeRequested.set(true);
+        markDirty();
+    }
+
+    private void markDirty() {
+        if (!dirty.get() && dirty.compareAndSet(false, true)) {
+            LiveUpdates.getInstance().schedule(this);
+        }
+    }
+
+    void flush() {
+        dirty.set(false);
+        if (closeRequested.get()) {
+            notify.close();
+            return;
+        }
+
+        String newTitle = title.getAndSet(UNCHANGED);
+        String newMessage = message.getAndSet(UNCHANGED);
+        long newProgress = progress.getAndSet(NO_PROGRESS);
+        notify.update(newTitle != UNCHANGED, newTitle, newMessage != UNCHANGED, newMessage,
+                newProgress != NO_PROGRESS, Double.longBitsToDouble(newProgress));
+    }
+}
@@ -0,0 +1,75 @@
+package notification;
+
+import javafx.animation.AnimationTimer;
+import javafx.application.Platform;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Applies pending live updates once per pulse; each handle is queued at most once until it is flushed
+class LiveUpdates {
+
+    private static final LiveUpdates INSTANCE = new LiveUpdates();
+
+    private final ConcurrentLinkedQueue<LiveNotification> dirty = new ConcurrentLinkedQueue<>();
+    // size() walks the whole queue, so the number of queued handles is counted alongside
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicBoolean pulseRunning = new AtomicBoolean();
+    private final AnimationTimer pulse;
+
+    private LiveUpdates() {
+        pulse = new AnimationTimer() {
+            @Override
+            public void handle(long now) {
+                flush();
+            }
+        };
+    }
+
+    static LiveUpdates getInstance() {
+        return INSTANCE;
+    }
+
+    void schedule(LiveNotification live) {
+        dirty.add(live);
+        queued.incrementAndGet();
+        wake();
+    }
+
+    private void wake() {
+        if (pulseRunning.compareAndSet(false, true)) {
+            if (Platform.isFxApplicationThread()) {
+                pulse.start();
+            } else {
+                Platform.runLater(pulse::start);
+            }
+        }
+    }
+
+    private void flush() {
+        // Only the handles queued before this pulse; one re-dirtied meanwhile waits for the next pulse
+        for (int i = queued.get(); i > 0; i--) {
+            LiveNotification live = dirty.poll();
+            if (live == null) {
+                break;
+            }
+            queued.decrementAndGet();
+            try {
+                live.flush();
+            } catch (RuntimeException e) {
+                e.printStackTrace();
+            }
+        }
+
+        if (dirty.isEmpty()) {
+            pulse.stop();
+            pulseRunning.set(false);
+
+            // A producer may have queued after the last poll but before the flag was cleared
+            if (!dirty.isEmpty()) {
+                wake();
+            }
+        }
+    }
+}
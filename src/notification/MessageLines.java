@@ -0,0 +1,65 @@
+package notification;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+
+// The rows of an expanded message: line breaks and hard wraps at a column count are found in one pass,
+// each row's text is only cut out of the message when a list cell asks for it
+final class MessageLines extends AbstractList<String> {
+
+    private final String text;
+    private final int[] starts;
+    private final int[] ends;
+    private final int size;
+
+    private MessageLines(String text, int[] starts, int[] ends, int size) {
+        this.text = text;
+        this.starts = starts;
+        this.ends = ends;
+        this.size = size;
+    }
+
+    static MessageLines split(String text, int columns) {
+        int capacity = Math.max(16, text.length() / Math.max(1, columns) + 16);
+        int[] starts = new int[capacity];
+        int[] ends = new int[capacity];
+        int size = 0;
+
+        int start = 0;
+        int length = text.length();
+        for (int i = 0; i <= length; i++) {
+            // "\r\n" ends the line at the '\r', so it never counts toward the column width
+            boolean crlf = i + 1 < length && text.charAt(i) == '\r' && text.charAt(i + 1) == '\n';
+            boolean lineEnd = i == length || crlf || text.charAt(i) == '\n';
+            if (!lineEnd && i - start < columns) {
+                continue;
+            }
+
+            if (size == starts.length) {
+                starts = Arrays.copyOf(starts, size * 2);
+                ends = Arrays.copyOf(ends, size * 2);
+            }
+            starts[size] = start;
+            ends[size] = i;
+            size++;
+            if (crlf) {
+                i++;
+            }
+            start = lineEnd ? i + 1 : i;
+        }
+        return new MessageLines(text, starts, ends, size);
+    }
+
+    @Override
+    public String get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        return text.substring(starts[index], ends[index]);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+}
@@ -0,0 +1,11 @@
+package notification;
+
+// Called on the thread that recorded the value, usually the FX thread: keep implementations cheap
+public interface MetricsListener {
+
+    default void phaseRecorded(NotifyMetrics.Phase phase, long nanos) {
+    }
+
+    default void counted(NotifyMetrics.Counter counter) {
+    }
+}
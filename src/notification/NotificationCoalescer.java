@@ -0,0 +1,56 @@
+package notification;
+
+import java.util.HashMap;
+
+class NotificationCoalescer {
+
+    private static final NotificationCoalescer INSTANCE = new NotificationCoalescer();
+
+    private final HashMap<String, Notify.Builder> byKey = new HashMap<>();
+    private final HashMap<String, Notify.Builder> byApp = new HashMap<>();
+
+    private NotificationCoalescer() {
+    }
+
+    static NotificationCoalescer getInstance() {
+        return INSTANCE;
+    }
+
+    Notify.Builder find(String dedupKey, String appName, long groupWindowNanos, long now) {
+        if (dedupKey != null) {
+            Notify.Builder live = byKey.get(dedupKey);
+            if (live != null) {
+                return live;
+            }
+        }
+
+        if (groupWindowNanos > 0 && appName != null) {
+            Notify.Builder group = byApp.get(appName);
+            if (group != null && now - group.lastCoalescedAt() < groupWindowNanos) {
+                return group;
+            }
+        }
+
+        return null;
+    }
+
+    void register(Notify.Builder builder, String dedupKey, String appName, boolean grouping) {
+        if (dedupKey != null) {
+            byKey.put(dedupKey, builder);
+        }
+
+        if (grouping && appName != null) {
+            byApp.put(appName, builder);
+        }
+    }
+
+    void unregister(Notify.Builder builder, String dedupKey, String appName) {
+        if (dedupKey != null) {
+            byKey.remove(dedupKey, builder);
+        }
+
+        if (appName != null) {
+            byApp.remove(appName, builder);
+        }
+    }
+}
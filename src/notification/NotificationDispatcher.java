@@ -0,0 +1,247 @@
+package notification;
+
+import javafx.animation.AnimationTimer;
+import javafx.application.Platform;
+import javafx.stage.Stage;
+import javafx.util.Duration;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+public class NotificationDispatcher {
+
+    private static final int DEFAULT_BATCH_SIZE = 16;
+    private static final int DEFAULT_CAPACITY = 1024;
+    private static final Duration MERGE_WINDOW = Duration.seconds(5);
+
+    private final Stage primaryStage;
+    private final int batchSize;
+    private final NotificationQueue queue;
+    private final AtomicBoolean pulseRunning = new AtomicBoolean();
+    private final AnimationTimer pulse;
+
+    private volatile BackpressurePolicy backpressurePolicy = BackpressurePolicy.DROP_LOWEST_PRIORITY;
+    private volatile AppRateLimiter rateLimiter;
+    private volatile RateLimitAction rateLimitAction = RateLimitAction.DROP;
+
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder dispatched = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder deferred = new LongAdder();
+    private final LongAdder merged = new LongAdder();
+    private final LongAdder totalLatency = new LongAdder();
+    private final AtomicLong maxLatency = new AtomicLong();
+    private final AtomicLong maxCriticalLatency = new AtomicLong();
+
+    public enum BackpressurePolicy {
+        BLOCK, DROP_OLDEST, DROP_LOWEST_PRIORITY, REJECT
+    }
+
+    public enum RateLimitAction {
+        DROP, MERGE, DEFER
+    }
+
+    public enum SubmitResult {
+        ACCEPTED, MERGED, DEFERRED, DROPPED, REJECTED
+    }
+
+    public NotificationDispatcher(Stage primaryStage) {
+        this(primaryStage, DEFAULT_BATCH_SIZE, DEFAULT_CAPACITY);
+    }
+
+    public NotificationDispatcher(Stage primaryStage, int batchSize, int capacity) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("batchSize must be positive");
+        }
+
+        this.primaryStage = primaryStage;
+        this.batchSize = batchSize;
+        this.queue = new NotificationQueue(capacity);
+        this.pulse = new AnimationTimer() {
+            @Override
+            public void handle(long now) {
+                drain();
+            }
+        };
+    }
+
+    public void setBackpressurePolicy(BackpressurePolicy backpressurePolicy) {
+        this.backpressurePolicy = backpressurePolicy;
+    }
+
+    public void setRateLimit(double notificationsPerSecond, int burst, RateLimitAction action) {
+        this.rateLimiter = new AppRateLimiter(notificationsPerSecond, burst);
+        this.rateLimitAction = action;
+    }
+
+    public void clearRateLimit() {
+        this.rateLimiter = null;
+    }
+
+    public SubmitResult submit(NotificationRequest request) {
+        return submit(request, backpressurePolicy);
+    }
+
+    public SubmitResult submit(NotificationRequest request, BackpressurePolicy policy) {
+        long now = System.nanoTime();
+        submitted.increment();
+
+        // Blocking the FX thread would stop the very drain that frees space
+        if (policy == BackpressurePolicy.BLOCK && Platform.isFxApplicationThread()) {
+            policy = BackpressurePolicy.REJECT;
+        }
+
+        boolean merge = false;
+        AppRateLimiter limiter = rateLimiter;
+        if (limiter != null && request.getPriority() != Notify.Priority.CRITICAL) {
+            RateLimitAction action = rateLimitAction;
+            if (action == RateLimitAction.DEFER) {
+                long wait = limiter.reserve(request.getAppName(), now);
+                if (wait > 0) {
+                    return defer(limiter, request, now, wait);
+                }
+            } else if (!limiter.tryAcquire(request.getAppName(), now)) {
+                if (action == RateLimitAction.DROP) {
+                    dropped.increment();
+                    NotifyMetrics.count(NotifyMetrics.Counter.DROPPED);
+                    return SubmitResult.DROPPED;
+                }
+                merge = true;
+            }
+        }
+
+        SubmitResult result;
+        try {
+            result = queue.offer(new NotificationQueue.Entry(request, now, merge), policy);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            result = SubmitResult.REJECTED;
+        }
+
+        switch (result) {
+            case DROPPED -> {
+                dropped.increment();
+                NotifyMetrics.count(NotifyMetrics.Counter.DROPPED);
+            }
+            case REJECTED -> rejected.increment();
+            case ACCEPTED -> {
+                wake();
+                if (merge) {
+                    merged.increment();
+                    return SubmitResult.MERGED;
+                }
+            }
+        }
+        return result;
+    }
+
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    public long getSubmittedCount() {
+        return submitted.sum();
+    }
+
+    public long getDispatchedCount() {
+        return dispatched.sum();
+    }
+
+    public long getDroppedCount() {
+        return dropped.sum() + queue.getEvictedCount();
+    }
+
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    public long getDeferredCount() {
+        return deferred.sum();
+    }
+
+    public long getMergedCount() {
+        return merged.sum();
+    }
+
+    public long getAverageEnqueueLatencyNanos() {
+        long count = dispatched.sum();
+        return count == 0 ? 0 : totalLatency.sum() / count;
+    }
+
+    public long getMaxEnqueueLatencyNanos() {
+        return maxLatency.get();
+    }
+
+    public long getMaxCriticalLatencyNanos() {
+        return maxCriticalLatency.get();
+    }
+
+    private SubmitResult defer(AppRateLimiter limiter, NotificationRequest request, long now, long wait) {
+        if (!queue.defer(new NotificationQueue.Entry(request, now, false), now + wait)) {
+            limiter.refund(request.getAppName(), now);
+            dropped.increment();
+            NotifyMetrics.count(NotifyMetrics.Counter.DROPPED);
+            return SubmitResult.DROPPED;
+        }
+
+        deferred.increment();
+        NotificationScheduler.getInstance().schedule(Duration.millis(Math.ceil(wait / 1_000_000.0)), this::wake);
+        return SubmitResult.DEFERRED;
+    }
+
+    private void wake() {
+        if (pulseRunning.compareAndSet(false, true)) {
+            if (Platform.isFxApplicationThread()) {
+                pulse.start();
+            } else {
+                Platform.runLater(pulse::start);
+            }
+        }
+    }
+
+    private void drain() {
+        queue.promoteDue(System.nanoTime());
+
+        // Critical notifications are never held back by the batch bound
+        NotificationQueue.Entry entry;
+        while ((entry = queue.poll(Notify.Priority.CRITICAL)) != null) {
+            dispatch(entry);
+        }
+
+        for (int i = 0; i < batchSize && (entry = queue.poll(Notify.Priority.LOW)) != null; i++) {
+            dispatch(entry);
+        }
+
+        if (queue.isEmpty()) {
+            pulse.stop();
+            pulseRunning.set(false);
+
+            // A producer may have enqueued after the last poll but before the flag was cleared
+            if (!queue.isEmpty()) {
+                wake();
+            }
+        }
+    }
+
+    private void dispatch(NotificationQueue.Entry entry) {
+        long latency = System.nanoTime() - entry.enqueuedAt;
+        totalLatency.add(latency);
+        maxLatency.accumulateAndGet(latency, Math::max);
+        if (entry.priority == Notify.Priority.CRITICAL) {
+            maxCriticalLatency.accumulateAndGet(latency, Math::max);
+        }
+
+        try {
+            Notify.Builder builder = entry.request.toBuilder(primaryStage);
+            if (entry.merge) {
+                builder.groupByApp(MERGE_WINDOW);
+            }
+            builder.build();
+            dispatched.increment();
+        } catch (RuntimeException e) {
+            e.printStackTrace();
+        }
+    }
+}
@@ -0,0 +1,448 @@
+package notification;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+// Append-only log of closed notifications, one memory-mapped file per segment:
+// [int payloadLength][int crc32][payload], a zero length marks the end of the written data
+public final class NotificationHistory implements Closeable {
+
+    private static final int DEFAULT_SEGMENT_SIZE = 4 << 20;
+    private static final int DEFAULT_MAX_SEGMENTS = 8;
+    private static final int MIN_SEGMENT_SIZE = 2 * HistoryEntry.MAX_ENCODED_SIZE;
+    private static final int MAX_BATCH = 256;
+    private static final int HEADER_SIZE = 8;
+    private static final String SUFFIX = ".log";
+    private static final HistoryEntry SHUTDOWN = new HistoryEntry(-1, 0, 0, 0, Notify.Outcome.DISMISSED,
+            new NotificationParameters(), null, null, null, null, null);
+
+    private static volatile NotificationHistory instance;
+
+    private final Path directory;
+    private final int segmentSize;
+    private final int maxSegments;
+    private final LinkedBlockingQueue<HistoryEntry> pending = new LinkedBlockingQueue<>();
+    private final ByteBuffer scratch = ByteBuffer.allocate(HistoryEntry.MAX_ENCODED_SIZE);
+    private final CRC32 crc = new CRC32();
+    private final Thread writer;
+
+    // Guarded by this: the writer appends, queries read
+    private final ArrayList<Segment> segments = new ArrayList<>();
+    private final HashMap<String, SequenceList> byApp = new HashMap<>();
+    private final ArrayList<Path> undeleted = new ArrayList<>();
+    private long nextSequence;
+    private volatile boolean closed;
+
+    private NotificationHistory(Path directory, int segmentSize, int maxSegments) throws IOException {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.maxSegments = maxSegments;
+
+        Files.createDirectories(directory);
+        recover();
+
+        writer = new Thread(this::writeLoop, "notify-history");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    public static NotificationHistory open(Path directory) throws IOException {
+        return open(directory, DEFAULT_SEGMENT_SIZE, DEFAULT_MAX_SEGMENTS);
+    }
+
+    // Retention is bounded to maxSegments * segmentSize bytes, the oldest segment is deleted first
+    public static NotificationHistory open(Path directory, int segmentSize, int maxSegments) throws IOException {
+        if (segmentSize < MIN_SEGMENT_SIZE) {
+            throw new IllegalArgumentException("segmentSize must be at least " + MIN_SEGMENT_SIZE);
+        }
+        if (maxSegments <= 0) {
+            throw new IllegalArgumentException("maxSegments must be positive");
+        }
+
+        return new NotificationHistory(directory, segmentSize, maxSegments);
+    }
+
+    public static NotificationHistory getInstance() {
+        return instance;
+    }
+
+    // Closed notifications are recorded into the installed history, pass null to stop recording
+    public static void setInstance(NotificationHistory history) {
+        instance = history;
+    }
+
+    public void record(HistoryEntry entry) {
+        if (!closed) {
+            pending.add(entry);
+        }
+    }
+
+    public synchronized long size() {
+        return segments.isEmpty() ? 0 : nextSequence - segments.get(0).baseSequence;
+    }
+
+    public List<HistoryEntry> latest(int limit) {
+        return before(Long.MAX_VALUE, limit);
+    }
+
+    // Newest first; pass the last sequence of a page to get the next, older page
+    public synchronized List<HistoryEntry> before(long sequence, int limit) {
+        ArrayList<HistoryEntry> page = new ArrayList<>(Math.min(limit, 64));
+        long cursor = Math.min(sequence, nextSequence) - 1;
+        for (int s = segmentIndex(cursor); s >= 0 && page.size() < limit; s--) {
+            Segment segment = segments.get(s);
+            int from = (int) Math.min(cursor - segment.baseSequence, segment.count - 1);
+            for (int i = from; i >= 0 && page.size() < limit; i--) {
+                page.add(segment.read(i));
+            }
+            cursor = segment.baseSequence - 1;
+        }
+        return page;
+    }
+
+    public List<HistoryEntry> latest(String appName, int limit) {
+        return before(appName, Long.MAX_VALUE, limit);
+    }
+
+    public synchronized List<HistoryEntry> before(String appName, long sequence, int limit) {
+        SequenceList sequences = byApp.get(appName);
+        if (sequences == null) {
+            return Collections.emptyList();
+        }
+
+        ArrayList<HistoryEntry> page = new ArrayList<>(Math.min(limit, 64));
+        for (int i = sequences.lowerBound(sequence) - 1; i >= 0 && page.size() < limit; i--) {
+            long entrySequence = sequences.get(i);
+            Segment segment = segments.get(segmentIndex(entrySequence));
+            page.add(segment.read((int) (entrySequence - segment.baseSequence)));
+        }
+        return page;
+    }
+
+    // Newest first among entries closed in [fromMillis, toMillis)
+    public synchronized List<HistoryEntry> closedBetween(long fromMillis, long toMillis, int limit) {
+        ArrayList<HistoryEntry> page = new ArrayList<>(Math.min(limit, 64));
+        for (int s = segments.size() - 1; s >= 0 && page.size() < limit; s--) {
+            Segment segment = segments.get(s);
+            if (segment.count == 0 || segment.closedAt[0] >= toMillis) {
+                continue;
+            }
+
+            for (int i = segment.lowerBound(toMillis) - 1; i >= 0 && page.size() < limit; i--) {
+                if (segment.closedAt[i] < fromMillis) {
+                    return page;
+                }
+                page.add(segment.read(i));
+            }
+        }
+        return page;
+    }
+
+    // Pending entries are written and forced to disk before this returns
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+
+        closed = true;
+        pending.add(SHUTDOWN);
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (instance == this) {
+            instance = null;
+        }
+    }
+
+    // ======
+    // Writer
+    // ======
+
+    private void writeLoop() {
+        ArrayList<HistoryEntry> batch = new ArrayList<>(MAX_BATCH);
+        boolean running = true;
+        while (running) {
+            try {
+                batch.add(pending.take());
+            } catch (InterruptedException e) {
+                return;
+            }
+            pending.drainTo(batch, MAX_BATCH - 1);
+
+            // One force per batch: everything queued while the last batch was syncing commits together
+            Segment active = null;
+            for (HistoryEntry entry : batch) {
+                if (entry == SHUTDOWN) {
+                    running = false;
+                    continue;
+                }
+                try {
+                    active = append(entry);
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
+            }
+            if (active != null) {
+                active.buffer.force();
+            }
+            batch.clear();
+        }
+    }
+
+    private Segment append(HistoryEntry entry) throws IOException {
+        scratch.clear();
+        entry.encode(scratch, nextSequence);
+        scratch.flip();
+
+        crc.reset();
+        crc.update(scratch.duplicate());
+        int length = scratch.remaining();
+
+        synchronized (this) {
+            Segment segment = segments.isEmpty() ? null : segments.get(segments.size() - 1);
+            if (segment == null || segment.writePosition + HEADER_SIZE + length > segment.buffer.capacity()) {
+                if (segment != null) {
+                    segment.buffer.force();
+                }
+                segment = roll();
+            }
+
+            int offset = segment.writePosition;
+            MappedByteBuffer buffer = segment.buffer;
+            buffer.putInt(offset + 4, (int) crc.getValue());
+            buffer.put(offset + HEADER_SIZE, scratch, 0, length);
+            buffer.putInt(offset, length);
+            segment.writePosition = offset + HEADER_SIZE + length;
+            if (segment.writePosition + 4 <= buffer.capacity()) {
+                buffer.putInt(segment.writePosition, 0);
+            }
+
+            index(segment, offset, entry.getClosedAt(), entry.getAppName());
+            return segment;
+        }
+    }
+
+    private Segment roll() throws IOException {
+        Segment segment = Segment.map(directory.resolve(String.format("%020d%s", nextSequence, SUFFIX)),
+                nextSequence, segmentSize);
+        segments.add(segment);
+        while (segments.size() > maxSegments) {
+            dropOldest();
+        }
+        undeleted.removeIf(NotificationHistory::delete);
+        return segment;
+    }
+
+    private void dropOldest() {
+        Segment oldest = segments.remove(0);
+        long firstSequence = segments.get(0).baseSequence;
+        Iterator<SequenceList> iterator = byApp.values().iterator();
+        while (iterator.hasNext()) {
+            SequenceList sequences = iterator.next();
+            sequences.dropBelow(firstSequence);
+            if (sequences.size == 0) {
+                iterator.remove();
+            }
+        }
+
+        // A file that is still mapped cannot be deleted on Windows; the mapping goes once the buffer is collected,
+        // so a failed delete is retried on the next roll and, after a restart, by recovery
+        oldest.release();
+        if (!delete(oldest.file)) {
+            undeleted.add(oldest.file);
+        }
+    }
+
+    private static boolean delete(Path file) {
+        try {
+            Files.deleteIfExists(file);
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private void index(Segment segment, int offset, long closedAt, String appName) {
+        segment.add(offset, closedAt);
+        if (appName != null) {
+            byApp.computeIfAbsent(appName, key -> new SequenceList()).add(nextSequence);
+        }
+        nextSequence++;
+    }
+
+    // ========
+    // Recovery
+    // ========
+
+    private void recover() throws IOException {
+        ArrayList<Path> files = new ArrayList<>();
+        try (Stream<Path> list = Files.list(directory)) {
+            list.filter(path -> path.getFileName().toString().endsWith(SUFFIX)).sorted().forEach(files::add);
+        }
+
+        // Segments past retention, left behind by a delete that failed, are removed before they are mapped
+        int excess = Math.max(0, files.size() - maxSegments);
+        for (int i = 0; i < excess; i++) {
+            if (!delete(files.get(i))) {
+                undeleted.add(files.get(i));
+            }
+        }
+
+        for (Path file : files.subList(excess, files.size())) {
+            Segment segment = Segment.map(file, nextSequence, (int) Math.max(segmentSize, Files.size(file)));
+            segments.add(segment);
+            scan(segment);
+        }
+    }
+
+    // Stops at the first zero length or checksum mismatch, a torn write from a crash is overwritten later
+    private void scan(Segment segment) {
+        ByteBuffer buffer = segment.buffer.duplicate();
+        int position = 0;
+        boolean first = true;
+        while (position + HEADER_SIZE <= buffer.capacity()) {
+            int length = buffer.getInt(position);
+            if (length <= 0 || position + HEADER_SIZE + length > buffer.capacity()) {
+                break;
+            }
+
+            ByteBuffer payload = buffer.slice(position + HEADER_SIZE, length);
+            crc.reset();
+            crc.update(payload.duplicate());
+            if ((int) crc.getValue() != buffer.getInt(position + 4)) {
+                break;
+            }
+
+            HistoryEntry entry = HistoryEntry.decode(payload);
+            if (first) {
+                segment.baseSequence = entry.getSequence();
+                nextSequence = entry.getSequence();
+                first = false;
+            }
+            index(segment, position, entry.getClosedAt(), entry.getAppName());
+            position += HEADER_SIZE + length;
+        }
+        segment.writePosition = position;
+    }
+
+    private int segmentIndex(long sequence) {
+        for (int s = segments.size() - 1; s >= 0; s--) {
+            if (segments.get(s).baseSequence <= sequence) {
+                return s;
+            }
+        }
+        return -1;
+    }
+
+    private static final class Segment {
+        private final Path file;
+        private MappedByteBuffer buffer;
+        private long baseSequence;
+        private int writePosition;
+        private int count;
+        private int[] offsets = new int[256];
+        private long[] closedAt = new long[256];
+
+        private Segment(Path file, MappedByteBuffer buffer, long baseSequence) {
+            this.file = file;
+            this.buffer = buffer;
+            this.baseSequence = baseSequence;
+        }
+
+        private static Segment map(Path file, long baseSequence, int size) throws IOException {
+            try (FileChannel channel = FileChannel.open(file,
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                return new Segment(file, channel.map(FileChannel.MapMode.READ_WRITE, 0, size), baseSequence);
+            }
+        }
+
+        // Entries are decoded into copies, so nothing else holds on to the mapping once this reference is gone
+        private void release() {
+            buffer = null;
+        }
+
+        private void add(int offset, long closedAtMillis) {
+            if (count == offsets.length) {
+                offsets = Arrays.copyOf(offsets, count * 2);
+                closedAt = Arrays.copyOf(closedAt, count * 2);
+            }
+            offsets[count] = offset;
+            closedAt[count] = closedAtMillis;
+            count++;
+        }
+
+        private HistoryEntry read(int index) {
+            int offset = offsets[index];
+            return HistoryEntry.decode(buffer.slice(offset + HEADER_SIZE, buffer.getInt(offset)));
+        }
+
+        private int lowerBound(long millis) {
+            int low = 0;
+            int high = count;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (closedAt[middle] < millis) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+    }
+
+    private static final class SequenceList {
+        private long[] values = new long[16];
+        private int size;
+
+        private void add(long sequence) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = sequence;
+        }
+
+        private long get(int index) {
+            return values[index];
+        }
+
+        private int lowerBound(long sequence) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (values[middle] < sequence) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+
+        private void dropBelow(long sequence) {
+            int from = lowerBound(sequence);
+            System.arraycopy(values, from, values, 0, size - from);
+            size -= from;
+        }
+    }
+}
@@ -1,27 +1,57 @@
 package notification;
 
+import javafx.stage.Screen;
+
 public class NotificationParameters {
     private Notify.Durability waitTime;
     private Notify.Animation animation;
     private Notify.Position position;
-    private Notify.Border iconBorder;
+    private Notify.Target target;
+    private Screen screen;
     private Notify.Sounds sound;
+    private Notify.Priority priority;
     private String textColorTitle;
     private String textColorMessage;
     private String backgroundColor;
     private double backgroundOpacity;
+    private Notify.Border iconBorder;
+    private Theme theme;
     private String iconPathURL;
+    private boolean idleAware;
+    private int messagePreviewLines;
 
     NotificationParameters() {
         waitTime = Notify.Durability.NEVER;
         animation = Notify.Animation.DISPLAY;
         position = Notify.Position.RIGHT_BOTTOM;
-        iconBorder = Notify.Border.CIRCLE;
+        target = Notify.Target.PRIMARY;
         sound = Notify.Sounds.ICQ;
-        textColorTitle = "#FFFFFF";
-        textColorMessage = "#b3b3b3";
-        backgroundColor = "#262626";
-        backgroundOpacity = 1;
+        priority = Notify.Priority.NORMAL;
+        setTheme(Theme.DEFAULT);
+        messagePreviewLines = 8;
+    }
+
+    NotificationParameters(NotificationParameters other) {
+        copyFrom(other);
+    }
+
+    void copyFrom(NotificationParameters other) {
+        waitTime = other.waitTime;
+        animation = other.animation;
+        position = other.position;
+        target = other.target;
+        screen = other.screen;
+        sound = other.sound;
+        priority = other.priority;
+        textColorTitle = other.textColorTitle;
+        textColorMessage = other.textColorMessage;
+        backgroundColor = other.backgroundColor;
+        backgroundOpacity = other.backgroundOpacity;
+        iconBorder = other.iconBorder;
+        theme = other.theme;
+        iconPathURL = other.iconPathURL;
+        idleAware = other.idleAware;
+        messagePreviewLines = other.messagePreviewLines;
     }
 
     public Notify.Durability getWaitTime() {
@@ -50,18 +80,53 @@ public class NotificationParameters {
 
     public void setIconBorder(Notify.Border iconBorder) {
         this.iconBorder = iconBorder;
+        theme = null;
     }
 
     public void setPosition(Notify.Position position) {
         this.position = position;
     }
 
+    public Notify.Target getTarget() {
+        return target;
+    }
+
+    public void setTarget(Notify.Target target) {
+        this.target = target;
+    }
+
+    public Screen getScreen() {
+        return screen;
+    }
+
+    public void setScreen(Screen screen) {
+        this.screen = screen;
+    }
+
+    // The individual settings are only turned into a theme when one is needed, not once per setter
+    public Theme getTheme() {
+        if (theme == null) {
+            theme = Theme.of(textColorTitle, textColorMessage, backgroundColor, backgroundOpacity, iconBorder);
+        }
+        return theme;
+    }
+
+    public void setTheme(Theme theme) {
+        textColorTitle = theme.getTextColorTitle();
+        textColorMessage = theme.getTextColorMessage();
+        backgroundColor = theme.getBackgroundColor();
+        backgroundOpacity = theme.getBackgroundOpacity();
+        iconBorder = theme.getIconBorder();
+        this.theme = theme;
+    }
+
     public String getTextColorTitle() {
         return textColorTitle;
     }
 
     public void setTextColorTitle(String textColorTitle) {
         this.textColorTitle = textColorTitle;
+        theme = null;
     }
 
     public String getTextColorMessage() {
@@ -70,6 +135,7 @@ public class NotificationParameters {
 
     public void setTextColorMessage(String textColorMessage) {
         this.textColorMessage = textColorMessage;
+        theme = null;
     }
 
     public String getBackgroundColor() {
@@ -78,6 +144,7 @@ public class NotificationParameters {
 
     public void setBackgroundColor(String backgroundColor) {
         this.backgroundColor = backgroundColor;
+        theme = null;
     }
 
     public double getBackgroundOpacity() {
@@ -86,6 +153,7 @@ public class NotificationParameters {
 
     public void setBackgroundOpacity(double backgroundOpacity) {
         this.backgroundOpacity = backgroundOpacity;
+        theme = null;
     }
 
     public String getIconPathURL() {
@@ -103,4 +171,28 @@ public class NotificationParameters {
     public void setSound(Notify.Sounds sound) {
         this.sound = sound;
     }
+
+    public Notify.Priority getPriority() {
+        return priority;
+    }
+
+    public void setPriority(Notify.Priority priority) {
+        this.priority = priority;
+    }
+
+    public boolean isIdleAware() {
+        return idleAware;
+    }
+
+    public void setIdleAware(boolean idleAware) {
+        this.idleAware = idleAware;
+    }
+
+    public int getMessagePreviewLines() {
+        return messagePreviewLines;
+    }
+
+    public void setMessagePreviewLines(int messagePreviewLines) {
+        this.messagePreviewLines = messagePreviewLines;
+    }
 }
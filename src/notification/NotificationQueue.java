@@ -0,0 +1,191 @@
+package notification;
+
+import java.util.ArrayDeque;
+import java.util.PriorityQueue;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+class NotificationQueue {
+
+    private static final Notify.Priority[] PRIORITIES = Notify.Priority.values();
+
+    private final int capacity;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notFull = lock.newCondition();
+    private final ArrayDeque<Entry>[] buckets;
+    private final PriorityQueue<Entry> deferred = new PriorityQueue<>((a, b) -> Long.compare(a.dueAt, b.dueAt));
+    private final LongAdder evicted = new LongAdder();
+    private long sequence;
+    private int size;
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    NotificationQueue(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+
+        this.capacity = capacity;
+        this.buckets = new ArrayDeque[PRIORITIES.length];
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new ArrayDeque<>();
+        }
+    }
+
+    NotificationDispatcher.SubmitResult offer(Entry entry, NotificationDispatcher.BackpressurePolicy policy)
+            throws InterruptedException {
+        lock.lock();
+        try {
+            // Critical notifications are always admitted: they push out a less important entry
+            // or, when the queue holds nothing but critical entries, go past the bound
+            if (size >= capacity && entry.priority == Notify.Priority.CRITICAL) {
+                evictLowestBelow(Notify.Priority.CRITICAL);
+            }
+
+            while (size >= capacity && entry.priority != Notify.Priority.CRITICAL) {
+                switch (policy) {
+                    case BLOCK -> notFull.await();
+                    case DROP_OLDEST -> {
+                        if (!evictOldestBelow(entry.priority)) {
+                            return NotificationDispatcher.SubmitResult.DROPPED;
+                        }
+                    }
+                    case DROP_LOWEST_PRIORITY -> {
+                        if (!evictLowestBelow(entry.priority)) {
+                            return NotificationDispatcher.SubmitResult.DROPPED;
+                        }
+                    }
+                    case REJECT -> {
+                        return NotificationDispatcher.SubmitResult.REJECTED;
+                    }
+                }
+            }
+
+            entry.sequence = sequence++;
+            buckets[entry.priority.ordinal()].add(entry);
+            size++;
+            return NotificationDispatcher.SubmitResult.ACCEPTED;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    boolean defer(Entry entry, long dueAt) {
+        lock.lock();
+        try {
+            if (deferred.size() >= capacity) {
+                return false;
+            }
+
+            entry.dueAt = dueAt;
+            deferred.add(entry);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Deferred entries already passed admission, so they are released past the capacity bound
+    void promoteDue(long now) {
+        lock.lock();
+        try {
+            while (!deferred.isEmpty() && deferred.peek().dueAt <= now) {
+                Entry entry = deferred.poll();
+                entry.sequence = sequence++;
+                buckets[entry.priority.ordinal()].add(entry);
+                size++;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    Entry poll(Notify.Priority minimum) {
+        lock.lock();
+        try {
+            for (int i = PRIORITIES.length - 1; i >= minimum.ordinal(); i--) {
+                Entry entry = buckets[i].poll();
+                if (entry != null) {
+                    size--;
+                    notFull.signal();
+                    return entry;
+                }
+            }
+            return null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int size() {
+        lock.lock();
+        try {
+            return size + deferred.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    boolean isEmpty() {
+        lock.lock();
+        try {
+            return size == 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    long getEvictedCount() {
+        return evicted.sum();
+    }
+
+    // Only entries less important than the newcomer make room for it, so critical ones are never pushed out
+    private boolean evictOldestBelow(Notify.Priority priority) {
+        ArrayDeque<Entry> oldest = null;
+        for (int i = 0; i < priority.ordinal(); i++) {
+            ArrayDeque<Entry> bucket = buckets[i];
+            if (!bucket.isEmpty() && (oldest == null || bucket.peek().sequence < oldest.peek().sequence)) {
+                oldest = bucket;
+            }
+        }
+
+        if (oldest == null) {
+            return false;
+        }
+
+        oldest.poll();
+        size--;
+        evicted.increment();
+        NotifyMetrics.count(NotifyMetrics.Counter.DROPPED);
+        return true;
+    }
+
+    private boolean evictLowestBelow(Notify.Priority priority) {
+        for (int i = 0; i < priority.ordinal(); i++) {
+            if (!buckets[i].isEmpty()) {
+                buckets[i].poll();
+                size--;
+                evicted.increment();
+                NotifyMetrics.count(NotifyMetrics.Counter.DROPPED);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    static final class Entry {
+        final NotificationRequest request;
+        final Notify.Priority priority;
+        final long enqueuedAt;
+        final boolean merge;
+        private long sequence;
+        private long dueAt;
+
+        Entry(NotificationRequest request, long enqueuedAt, boolean merge) {
+            this.request = request;
+            this.priority = request.getPriority();
+            this.enqueuedAt = enqueuedAt;
+            this.merge = merge;
+        }
+    }
+}
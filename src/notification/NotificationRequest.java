@@ -0,0 +1,303 @@
+package notification;
+
+import javafx.event.ActionEvent;
+import javafx.event.EventHandler;
+import javafx.stage.Screen;
+import javafx.stage.Stage;
+import javafx.util.Duration;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+public final class NotificationRequest {
+
+    private final String title;
+    private final String message;
+    private final String appName;
+    private final NotificationParameters parameters;
+    private final boolean textInput;
+    private final String comboBoxSelectedValue;
+    private final List<String> comboBoxValues;
+    private final OptionIndex comboBoxIndex;
+    private final String okButtonText;
+    private final String cancelButtonText;
+    private final EventHandler<ActionEvent> okButtonListener;
+    private final EventHandler<ActionEvent> cancelButtonListener;
+    private final Consumer<NotificationResponse> okButtonAction;
+    private final Consumer<NotificationResponse> cancelButtonAction;
+    private final Duration actionTimeout;
+    private final String dedupKey;
+    private final Duration groupWindow;
+
+    private NotificationRequest(Builder builder) {
+        this.title = builder.title;
+        this.message = builder.message;
+        this.appName = builder.appName;
+        this.parameters = new NotificationParameters(builder.parameters);
+        this.textInput = builder.textInput;
+        this.comboBoxSelectedValue = builder.comboBoxSelectedValue;
+        this.comboBoxValues = builder.comboBoxValues;
+        this.comboBoxIndex = builder.comboBoxIndex;
+        this.okButtonText = builder.okButtonText;
+        this.cancelButtonText = builder.cancelButtonText;
+        this.okButtonListener = builder.okButtonListener;
+        this.cancelButtonListener = builder.cancelButtonListener;
+        this.okButtonAction = builder.okButtonAction;
+        this.cancelButtonAction = builder.cancelButtonAction;
+        this.actionTimeout = builder.actionTimeout;
+        this.dedupKey = builder.dedupKey;
+        this.groupWindow = builder.groupWindow;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public String getAppName() {
+        return appName;
+    }
+
+    public Notify.Priority getPriority() {
+        return parameters.getPriority();
+    }
+
+    Notify.Builder toBuilder(Stage primaryStage) {
+        Notify.Builder builder = new Notify.Builder(primaryStage)
+                .title(title)
+                .message(message)
+                .appName(appName)
+                .parameters(parameters)
+                .dedupKey(dedupKey)
+                .groupByApp(groupWindow);
+
+        if (textInput) {
+            builder.textInput();
+        }
+
+        if (comboBoxIndex != null) {
+            builder.searchableComboBox(comboBoxSelectedValue, comboBoxIndex);
+        } else if (comboBoxValues != null) {
+            builder.comboBox(comboBoxSelectedValue, comboBoxValues);
+        }
+
+        if (okButtonListener != null) {
+            builder.okButton(okButtonText, okButtonListener);
+        }
+
+        if (cancelButtonListener != null) {
+            builder.cancelButton(cancelButtonText, cancelButtonListener);
+        }
+
+        if (okButtonAction != null) {
+            builder.okButtonAsync(okButtonText, okButtonAction);
+        }
+
+        if (cancelButtonAction != null) {
+            builder.cancelButtonAsync(cancelButtonText, cancelButtonAction);
+        }
+
+        if (actionTimeout != null) {
+            builder.actionTimeout(actionTimeout);
+        }
+
+        return builder;
+    }
+
+    public static class Builder {
+        private final NotificationParameters parameters = new NotificationParameters();
+
+        private String title;
+        private String message;
+        private String appName;
+        private boolean textInput;
+        private String comboBoxSelectedValue;
+        private List<String> comboBoxValues;
+        private OptionIndex comboBoxIndex;
+        private String okButtonText;
+        private String cancelButtonText;
+        private EventHandler<ActionEvent> okButtonListener;
+        private EventHandler<ActionEvent> cancelButtonListener;
+        private Consumer<NotificationResponse> okButtonAction;
+        private Consumer<NotificationResponse> cancelButtonAction;
+        private Duration actionTimeout;
+        private String dedupKey;
+        private Duration groupWindow;
+
+        public Builder title(String title) {
+            this.title = title;
+            return this;
+        }
+
+        public Builder message(String message) {
+            this.message = message;
+            return this;
+        }
+
+        public Builder appName(String appName) {
+            this.appName = appName;
+            return this;
+        }
+
+        public Builder sound(Notify.Sounds sound) {
+            parameters.setSound(sound);
+            return this;
+        }
+
+        public Builder waitTime(Notify.Durability waitTime) {
+            parameters.setWaitTime(waitTime);
+            return this;
+        }
+
+        public Builder animation(Notify.Animation animation) {
+            parameters.setAnimation(animation);
+            return this;
+        }
+
+        public Builder position(Notify.Position position) {
+            parameters.setPosition(position);
+            return this;
+        }
+
+        public Builder target(Notify.Target target) {
+            parameters.setTarget(target);
+            return this;
+        }
+
+        public Builder screen(Screen screen) {
+            parameters.setScreen(screen);
+            return this;
+        }
+
+        public Builder textColorTitle(String textColor) {
+            parameters.setTextColorTitle(textColor);
+            return this;
+        }
+
+        public Builder iconBorder(Notify.Border border) {
+            parameters.setIconBorder(border);
+            return this;
+        }
+
+        public Builder textColorMessage(String textColor) {
+            parameters.setTextColorMessage(textColor);
+            return this;
+        }
+
+        public Builder backgroundColor(String backgroundColor) {
+            parameters.setBackgroundColor(backgroundColor);
+            return this;
+        }
+
+        public Builder backgroundOpacity(double backgroundOpacity) {
+            parameters.setBackgroundOpacity(backgroundOpacity);
+            return this;
+        }
+
+        public Builder theme(Theme theme) {
+            parameters.setTheme(theme);
+            return this;
+        }
+
+        public Builder iconPathURL(String iconPathURL) {
+            parameters.setIconPathURL(iconPathURL);
+            return this;
+        }
+
+        public Builder priority(Notify.Priority priority) {
+            parameters.setPriority(priority);
+            return this;
+        }
+
+        public Builder idleAware() {
+            parameters.setIdleAware(true);
+            return this;
+        }
+
+        public Builder messagePreviewLines(int lines) {
+            if (lines < 0) {
+                throw new IllegalArgumentException("lines must not be negative");
+            }
+            parameters.setMessagePreviewLines(lines);
+            return this;
+        }
+
+        public Builder textInput() {
+            textInput = true;
+            return this;
+        }
+
+        public Builder comboBox(String selectedValue, String... values) {
+            comboBoxSelectedValue = selectedValue;
+            comboBoxValues = Notify.Builder.copyOptions(Arrays.asList(values));
+            comboBoxIndex = null;
+            return this;
+        }
+
+        public Builder comboBox(String selectedValue, List<String> values) {
+            comboBoxSelectedValue = selectedValue;
+            comboBoxValues = Notify.Builder.copyOptions(values);
+            comboBoxIndex = null;
+            return this;
+        }
+
+        public Builder searchableComboBox(String selectedValue, OptionIndex options) {
+            comboBoxSelectedValue = selectedValue;
+            comboBoxIndex = options;
+            comboBoxValues = null;
+            return this;
+        }
+
+        public Builder okButton(String name, final EventHandler<ActionEvent> listener) {
+            this.okButtonText = name;
+            this.okButtonListener = listener;
+            return this;
+        }
+
+        public Builder cancelButton(String name, final EventHandler<ActionEvent> listener) {
+            this.cancelButtonText = name;
+            this.cancelButtonListener = listener;
+            return this;
+        }
+
+        public Builder okButtonAsync(String name, Consumer<NotificationResponse> action) {
+            this.okButtonText = name;
+            this.okButtonAction = action;
+            return this;
+        }
+
+        public Builder cancelButtonAsync(String name, Consumer<NotificationResponse> action) {
+            this.cancelButtonText = name;
+            this.cancelButtonAction = action;
+            return this;
+        }
+
+        public Builder actionTimeout(Duration actionTimeout) {
+            this.actionTimeout = actionTimeout;
+            return this;
+        }
+
+        public Builder dedupKey(String dedupKey) {
+            this.dedupKey = dedupKey;
+            return this;
+        }
+
+        public Builder groupByApp(Duration window) {
+            if (window != null && !(window.toMillis() > 0)) {
+                throw new IllegalArgumentException("window must be positive");
+            }
+            this.groupWindow = window;
+            return this;
+        }
+
+        public NotificationRequest build() {
+            // Resolving the theme here parses the colors, so a request with a bad one is refused before it is queued
+            parameters.getTheme();
+            return new NotificationRequest(this);
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package notification;
+
+public final class NotificationResponse {
+
+    private final Notify.Outcome outcome;
+    private final String textFieldValue;
+    private final String comboBoxValue;
+
+    NotificationResponse(Notify.Outcome outcome, String textFieldValue, String comboBoxValue) {
+        this.outcome = outcome;
+        this.textFieldValue = textFieldValue;
+        this.comboBoxValue = comboBoxValue;
+    }
+
+    public Notify.Outcome getOutcome() {
+        return outcome;
+    }
+
+    public String getTextFieldValue() {
+        return textFieldValue;
+    }
+
+    public String getComboBoxValue() {
+        return comboBoxValue;
+    }
+}
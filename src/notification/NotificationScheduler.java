@@ -0,0 +1,144 @@
+package notification;
+
+import javafx.application.Platform;
+import javafx.util.Duration;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+public class NotificationScheduler {
+
+    private static final NotificationScheduler INSTANCE = new NotificationScheduler();
+
+    private final ScheduledThreadPoolExecutor executor;
+
+    private NotificationScheduler() {
+        executor = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = Executors.defaultThreadFactory().newThread(runnable);
+            thread.setName("notify-scheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.setRemoveOnCancelPolicy(true);
+    }
+
+    public static NotificationScheduler getInstance() {
+        return INSTANCE;
+    }
+
+    public Expiry schedule(Duration delay, Runnable action) {
+        Expiry expiry = new Expiry(action);
+        expiry.reschedule(delay);
+        return expiry;
+    }
+
+    public int getPendingCount() {
+        return executor.getQueue().size();
+    }
+
+    // Runs the action on the FX thread at a fixed rate until the returned future is cancelled
+    ScheduledFuture<?> repeat(Duration period, Runnable action) {
+        long millis = (long) period.toMillis();
+        return executor.scheduleAtFixedRate(() -> Platform.runLater(action), millis, millis, TimeUnit.MILLISECONDS);
+    }
+
+    // Tracks a monotonic deadline so a paused expiry resumes with exactly the time that was left
+    public class Expiry {
+        private final Runnable action;
+        private ScheduledFuture<?> future;
+        private long generation;
+        private long deadline;
+        private long remaining;
+        private boolean paused;
+        private boolean done;
+
+        private Expiry(Runnable action) {
+            this.action = action;
+        }
+
+        public synchronized void reschedule(Duration delay) {
+            if (done) {
+                return;
+            }
+
+            long nanos = (long) (delay.toMillis() * 1_000_000);
+            if (paused) {
+                remaining = nanos;
+            } else {
+                arm(nanos);
+            }
+        }
+
+        public synchronized void pause() {
+            if (done || paused) {
+                return;
+            }
+
+            paused = true;
+            remaining = Math.max(0, deadline - System.nanoTime());
+            disarm();
+        }
+
+        public synchronized void resume() {
+            if (done || !paused) {
+                return;
+            }
+
+            paused = false;
+            arm(remaining);
+        }
+
+        public synchronized void cancel() {
+            done = true;
+            disarm();
+        }
+
+        public synchronized boolean isPending() {
+            return !done;
+        }
+
+        public synchronized boolean isPaused() {
+            return paused && !done;
+        }
+
+        public synchronized Duration getRemaining() {
+            if (done) {
+                return Duration.ZERO;
+            }
+
+            long nanos = paused ? remaining : Math.max(0, deadline - System.nanoTime());
+            return Duration.millis(nanos / 1_000_000.0);
+        }
+
+        private void arm(long nanos) {
+            disarm();
+            deadline = System.nanoTime() + nanos;
+            long scheduledGeneration = generation;
+            future = executor.schedule(() -> Platform.runLater(() -> fire(scheduledGeneration)),
+                    nanos, TimeUnit.NANOSECONDS);
+        }
+
+        // Bumping the generation also discards a firing that is already queued on the FX thread
+        private void disarm() {
+            generation++;
+            if (future != null) {
+                future.cancel(false);
+                future = null;
+            }
+        }
+
+        private void fire(long firedGeneration) {
+            synchronized (this) {
+                // A cancel, pause or reschedule may land between the timer firing and the FX thread picking it up
+                if (done || firedGeneration != generation) {
+                    return;
+                }
+                done = true;
+                future = null;
+            }
+            action.run();
+        }
+    }
+}
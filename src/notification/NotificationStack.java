@@ -0,0 +1,201 @@
+package notification;
+
+import javafx.geometry.Rectangle2D;
+import javafx.stage.Stage;
+import javafx.util.Duration;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class NotificationStack {
+
+    private static final NotificationStack INSTANCE = new NotificationStack();
+    private static final int DEFAULT_MAX_VISIBLE = 5;
+    private static final double SHIFT = 15;
+    private static final double GAP = 10;
+    private static final Duration MOVE_DURATION = Duration.millis(250);
+
+    private final EnumMap<Notify.Position, ArrayList<Slot>> visible = new EnumMap<>(Notify.Position.class);
+    private final EnumMap<Notify.Position, ArrayDeque<Runnable>> overflow = new EnumMap<>(Notify.Position.class);
+    // The slots are only touched on the FX thread, metrics read this count from any thread
+    private final AtomicInteger liveCount = new AtomicInteger();
+    private int maxVisible = DEFAULT_MAX_VISIBLE;
+
+    private NotificationStack() {
+        for (Notify.Position position : Notify.Position.values()) {
+            visible.put(position, new ArrayList<>());
+            overflow.put(position, new ArrayDeque<>());
+        }
+    }
+
+    public static NotificationStack getInstance() {
+        return INSTANCE;
+    }
+
+    public void setMaxVisible(int maxVisible) {
+        if (maxVisible <= 0) {
+            throw new IllegalArgumentException("maxVisible must be positive");
+        }
+
+        this.maxVisible = maxVisible;
+        for (Notify.Position position : Notify.Position.values()) {
+            drain(position);
+        }
+    }
+
+    public int getMaxVisible() {
+        return maxVisible;
+    }
+
+    public int getVisibleCount(Notify.Position position) {
+        return visible.get(position).size();
+    }
+
+    int getLiveCount() {
+        return liveCount.get();
+    }
+
+    public int getQueuedCount(Notify.Position position) {
+        return overflow.get(position).size();
+    }
+
+    void show(Notify.Position position, Notify.Priority priority, Runnable display) {
+        // Critical notifications skip the overflow queue and may exceed maxVisible
+        if (priority == Notify.Priority.CRITICAL
+                || visible.get(position).size() < maxVisible && overflow.get(position).isEmpty()) {
+            display.run();
+        } else {
+            overflow.get(position).add(display);
+        }
+    }
+
+    boolean cancel(Notify.Position position, Runnable display) {
+        return overflow.get(position).remove(display);
+    }
+
+    void add(Notify.Position position, NotificationWindow window, Rectangle2D area) {
+        ArrayList<Slot> slots = visible.get(position);
+
+        window.content.applyCss();
+        double height = window.content.prefHeight(NotificationWindow.POPUP_WIDTH);
+
+        // Each screen keeps its own column, so stack below the last popup on the same work area
+        double offset = 0;
+        for (int i = slots.size() - 1; i >= 0; i--) {
+            Slot last = slots.get(i);
+            if (last.area.equals(area)) {
+                offset = last.offset + last.height + GAP;
+                break;
+            }
+        }
+
+        Slot slot = new Slot(window, area, height, offset);
+        slots.add(slot);
+        liveCount.incrementAndGet();
+
+        Stage popup = window.popup;
+        popup.sizeToScene();
+        popup.setX(x(position, area));
+        popup.setY(y(position, area, slot, offset));
+    }
+
+    void remove(NotificationWindow window) {
+        for (Notify.Position position : Notify.Position.values()) {
+            ArrayList<Slot> slots = visible.get(position);
+            for (int i = 0; i < slots.size(); i++) {
+                if (slots.get(i).window == window) {
+                    Slot removed = slots.remove(i);
+                    liveCount.decrementAndGet();
+                    if (removed.move != null) {
+                        removed.move.stop();
+                    }
+                    collapse(position, slots, i, removed.area, removed.height + GAP);
+                    return;
+                }
+            }
+        }
+    }
+
+    void resize(NotificationWindow window) {
+        for (Notify.Position position : Notify.Position.values()) {
+            ArrayList<Slot> slots = visible.get(position);
+            for (int i = 0; i < slots.size(); i++) {
+                Slot slot = slots.get(i);
+                if (slot.window == window) {
+                    window.content.applyCss();
+                    double height = window.content.prefHeight(NotificationWindow.POPUP_WIDTH);
+                    double delta = height - slot.height;
+                    if (delta == 0) {
+                        return;
+                    }
+
+                    slot.height = height;
+                    window.popup.sizeToScene();
+                    slot.moveTo(y(position, slot.area, slot, slot.offset));
+                    collapse(position, slots, i + 1, slot.area, -delta);
+                    return;
+                }
+            }
+        }
+    }
+
+    // Only the popups stacked after the removed one move, each by the freed height
+    private void collapse(Notify.Position position, ArrayList<Slot> slots, int from, Rectangle2D area, double distance) {
+        for (int i = from; i < slots.size(); i++) {
+            Slot slot = slots.get(i);
+            if (slot.area.equals(area)) {
+                slot.offset -= distance;
+                slot.moveTo(y(position, area, slot, slot.offset));
+            }
+        }
+    }
+
+    void drain(Notify.Position position) {
+        ArrayDeque<Runnable> pending = overflow.get(position);
+        while (!pending.isEmpty() && visible.get(position).size() < maxVisible) {
+            pending.poll().run();
+        }
+    }
+
+    private static double x(Notify.Position position, Rectangle2D area) {
+        return switch (position) {
+            case LEFT_TOP, LEFT_BOTTOM -> area.getMinX() + SHIFT;
+            case RIGHT_TOP, RIGHT_BOTTOM -> area.getMaxX() - NotificationWindow.POPUP_WIDTH - SHIFT;
+        };
+    }
+
+    private static double y(Notify.Position position, Rectangle2D area, Slot slot, double offset) {
+        return switch (position) {
+            case LEFT_TOP, RIGHT_TOP -> area.getMinY() + SHIFT + offset;
+            case LEFT_BOTTOM, RIGHT_BOTTOM -> area.getMaxY() - SHIFT - offset - slot.height;
+        };
+    }
+
+    private static final class Slot {
+        private final NotificationWindow window;
+        private final Rectangle2D area;
+        private double height;
+        private double offset;
+        private AnimationDriver.Motion move;
+
+        private Slot(NotificationWindow window, Rectangle2D area, double height, double offset) {
+            this.window = window;
+            this.area = area;
+            this.height = height;
+            this.offset = offset;
+        }
+
+        private void moveTo(double targetY) {
+            if (move != null) {
+                move.stop();
+            }
+
+            Stage popup = window.popup;
+            double fromY = popup.getY();
+            move = AnimationDriver.getInstance().animate(null, MOVE_DURATION,
+                    progress -> popup.setY(fromY + (targetY - fromY) * progress), () -> move = null);
+        }
+    }
+}
@@ -0,0 +1,432 @@
+package notification;
+
+import javafx.collections.FXCollections;
+import javafx.css.PseudoClass;
+import javafx.geometry.Insets;
+import javafx.scene.Cursor;
+import javafx.scene.Scene;
+import javafx.scene.control.Button;
+import javafx.scene.control.ComboBox;
+import javafx.scene.control.ListView;
+import javafx.scene.control.ProgressBar;
+import javafx.scene.control.TextField;
+import javafx.scene.input.KeyEvent;
+import javafx.scene.input.MouseEvent;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.VBox;
+import javafx.scene.paint.Color;
+import javafx.scene.shape.Circle;
+import javafx.scene.shape.Rectangle;
+import javafx.scene.text.Font;
+import javafx.scene.text.Text;
+import javafx.stage.Stage;
+import javafx.stage.StageStyle;
+
+import java.net.URL;
+import java.nio.file.Paths;
+
+class NotificationWindow {
+
+    static final double POPUP_WIDTH = 350;
+    private static final String STYLESHEET = locateStylesheet();
+    private static final double OPTION_CELL_HEIGHT = 24;
+    private static final double LINE_CELL_HEIGHT = 16;
+    private static final int VISIBLE_LINES = 15;
+    // Matches the .notify-message-lines cell font in notify.css
+    private static final Font LINES_FONT = Font.font("Monospaced", 12);
+    private static final PseudoClass PENDING = PseudoClass.getPseudoClass("pending");
+    private static final PseudoClass FAILED = PseudoClass.getPseudoClass("failed");
+
+    final Stage owner;
+    final Stage popup = new Stage();
+    final VBox content = new VBox();
+    final VBox messageLayout = new VBox();
+    final HBox messageContent = new HBox();
+
+    // Plain text nodes: a passive toast has no controls, skins or focus traversal
+    final Text title = new Text();
+    final Text message = new Text();
+    final Text app = new Text();
+    final Text counter = new Text();
+    final Circle circleIcon = new Circle(80, 80, 40);
+    final Rectangle squareIcon = new Rectangle(0, 0, 80, 80);
+
+    // Interactive sections are created the first time a notification declares them
+    private VBox inputContent;
+    private HBox actionsContent;
+    private TextField textField;
+    private ComboBox<String> comboBox;
+    private Button okButton;
+    private Button cancelButton;
+    private Text status;
+    private ProgressBar progressBar;
+    private TextField optionFilter;
+    private ListView<String> optionList;
+    private OptionIndex options;
+    private Text expandLink;
+    private ListView<String> messageLines;
+    private MessageLines shownLines;
+
+    private String themeStyleClass;
+    private double backgroundOpacity = 1;
+    private boolean hovered;
+    private boolean engaged;
+    private Runnable onAttentionChanged;
+    private Runnable onExpandToggled;
+
+    NotificationWindow(Stage owner) {
+        this.owner = owner;
+
+        // Placement, the slide animations and off-screen frames all assume this width, sizeToScene must not shrink it
+        content.setMinWidth(POPUP_WIDTH);
+        content.setPrefWidth(POPUP_WIDTH);
+        content.setPadding(new Insets(5));
+        messageContent.setPadding(new Insets(5));
+        messageContent.setSpacing(10.0);
+        messageContent.getChildren().add(messageLayout);
+        content.getChildren().add(messageContent);
+
+        title.setFont(Font.font(24));
+        message.setWrappingWidth(POPUP_WIDTH - 100);
+        message.setFont(Font.font(18));
+        app.setFont(Font.font(14));
+        counter.setFont(Font.font(14));
+
+        content.getStyleClass().add("notify");
+        title.getStyleClass().add("notify-title");
+        counter.getStyleClass().add("notify-counter");
+        message.getStyleClass().add("notify-message");
+        app.getStyleClass().add("notify-app");
+
+        content.addEventFilter(MouseEvent.MOUSE_ENTERED, MouseEvent -> {
+            popup.setOpacity(1);
+            hovered = true;
+            attentionChanged();
+        });
+        content.addEventFilter(MouseEvent.MOUSE_EXITED, MouseEvent -> {
+            popup.setOpacity(backgroundOpacity);
+            hovered = false;
+        engaged = false;
+            attentionChanged();
+        });
+        // show() focuses the popup by itself, so focus only counts once the user has clicked or typed in it
+        content.addEventFilter(MouseEvent.MOUSE_PRESSED, MouseEvent -> engage());
+        content.addEventFilter(KeyEvent.KEY_PRESSED, KeyEvent -> engage());
+        popup.focusedProperty().addListener((observable, wasFocused, focused) -> {
+            if (!focused) {
+                engaged = false;
+            }
+            attentionChanged();
+        });
+
+        Scene scene = new Scene(content);
+        scene.getStylesheets().add(STYLESHEET);
+        scene.setFill(Color.TRANSPARENT);
+        popup.setScene(scene);
+        popup.setWidth(POPUP_WIDTH);
+        popup.setAlwaysOnTop(true);
+        popup.initOwner(owner);
+        popup.initStyle(StageStyle.TRANSPARENT);
+    }
+
+    TextField textField() {
+        if (textField == null) {
+            textField = new TextField();
+        }
+        inputContent().getChildren().add(textField);
+        return textField;
+    }
+
+    ComboBox<String> comboBox() {
+        if (comboBox == null) {
+            comboBox = new ComboBox<>();
+            comboBox.setVisibleRowCount(5);
+            comboBox.setPrefWidth(POPUP_WIDTH);
+            comboBox.setPadding(new Insets(0, 5, 0, 5));
+        }
+        inputContent().getChildren().add(comboBox);
+        return comboBox;
+    }
+
+    Button okButton() {
+        if (okButton == null) {
+            okButton = createButton();
+        }
+        actionsContent().getChildren().add(okButton);
+        return okButton;
+    }
+
+    Button cancelButton() {
+        if (cancelButton == null) {
+            cancelButton = createButton();
+        }
+        actionsContent().getChildren().add(cancelButton);
+        return cancelButton;
+    }
+
+    void setActionState(Notify.ActionState state, String statusText) {
+        boolean pending = state == Notify.ActionState.PENDING;
+        content.pseudoClassStateChanged(PENDING, pending);
+        content.pseudoClassStateChanged(FAILED, state == Notify.ActionState.FAILED);
+        if (okButton != null) {
+            okButton.setDisable(pending);
+        }
+        if (cancelButton != null) {
+            cancelButton.setDisable(pending);
+        }
+
+        if (status == null) {
+            status = new Text();
+            status.setFont(Font.font(14));
+            status.setWrappingWidth(POPUP_WIDTH - 100);
+            status.getStyleClass().add("notify-status");
+        }
+        status.setText(statusText);
+        restoreActionState();
+    }
+
+    // The labels are rebuilt on update, coalesce and expand; a pending or failed status stays below them
+    void restoreActionState() {
+        if (status != null && status.getText() != null && status.getParent() == null) {
+            messageLayout.getChildren().add(status);
+        }
+    }
+
+    ProgressBar progressBar() {
+        if (progressBar == null) {
+            progressBar = new ProgressBar();
+            progressBar.setPrefWidth(POPUP_WIDTH - 100);
+        }
+        return progressBar;
+    }
+
+    String getTextFieldValue() {
+        return textField == null || textField.getParent() == null ? null : textField.getText();
+    }
+
+    String getComboBoxValue() {
+        return comboBox == null || comboBox.getParent() == null ? null : comboBox.getValue();
+    }
+
+    private Button createButton() {
+        Button button = new Button();
+        button.setPrefWidth(POPUP_WIDTH);
+        return button;
+    }
+
+    // The input section always sits between the message and the actions
+    private VBox inputContent() {
+        if (inputContent == null) {
+            inputContent = new VBox();
+            inputContent.setSpacing(10);
+            inputContent.setPadding(new Insets(5));
+        }
+        if (inputContent.getParent() == null) {
+            content.getChildren().add(1, inputContent);
+        }
+        return inputContent;
+    }
+
+    private HBox actionsContent() {
+        if (actionsContent == null) {
+            actionsContent = new HBox();
+            actionsContent.setPrefWidth(POPUP_WIDTH);
+            actionsContent.setSpacing(10.0);
+            actionsContent.setPadding(new Insets(5));
+        }
+        if (actionsContent.getParent() == null) {
+            content.getChildren().add(actionsContent);
+        }
+        return actionsContent;
+    }
+
+    // A pooled window that shows the same colors again keeps its stylesheets and style class untouched
+    void applyTheme(Theme theme) {
+        backgroundOpacity = theme.getBackgroundOpacity();
+        String styleClass = theme.getStyleClass();
+        if (styleClass.equals(themeStyleClass)) {
+            return;
+        }
+
+        if (themeStyleClass != null) {
+            content.getStyleClass().remove(themeStyleClass);
+        }
+        content.getStyleClass().add(styleClass);
+        popup.getScene().getStylesheets().setAll(STYLESHEET, theme.getStylesheet());
+        themeStyleClass = styleClass;
+    }
+
+    // The user is reading or typing into this popup
+    boolean hasAttention() {
+        return hovered || engaged && popup.isFocused();
+    }
+
+    private void engage() {
+        if (!engaged) {
+            engaged = true;
+            attentionChanged();
+        }
+    }
+
+    void setOnAttentionChanged(Runnable onAttentionChanged) {
+        this.onAttentionChanged = onAttentionChanged;
+    }
+
+    private void attentionChanged() {
+        if (onAttentionChanged != null) {
+            onAttentionChanged.run();
+        }
+    }
+
+    Text expandLink(String text, Runnable onExpandToggled) {
+        if (expandLink == null) {
+            expandLink = new Text();
+            expandLink.setFont(Font.font(14));
+            expandLink.setCursor(Cursor.HAND);
+            expandLink.getStyleClass().add("notify-expand");
+            expandLink.setOnMouseClicked(MouseEvent -> {
+                if (this.onExpandToggled != null) {
+                    this.onExpandToggled.run();
+                }
+            });
+        }
+        expandLink.setText(text);
+        this.onExpandToggled = onExpandToggled;
+        return expandLink;
+    }
+
+    // Rows this wide fit the expanded list without a horizontal scroll bar
+    int messageLineColumns() {
+        double usable = POPUP_WIDTH - 40;
+        return Math.max(1, (int) (usable / TextMetrics.of(LINES_FONT).advance('m')));
+    }
+
+    // A fixed cell size keeps the expanded message virtualised, only the visible rows are ever laid out
+    void showMessageLines(MessageLines lines) {
+        if (messageLines == null) {
+            messageLines = new ListView<>();
+            messageLines.setFixedCellSize(LINE_CELL_HEIGHT);
+            messageLines.setPrefHeight(LINE_CELL_HEIGHT * VISIBLE_LINES + 2);
+            messageLines.setPrefWidth(POPUP_WIDTH);
+            messageLines.getStyleClass().add("notify-message-lines");
+        }
+        if (shownLines != lines) {
+            shownLines = lines;
+            messageLines.setItems(FXCollections.observableList(lines));
+        }
+        if (messageLines.getParent() == null) {
+            content.getChildren().add(1, messageLines);
+        }
+    }
+
+    void hideMessageLines() {
+        if (messageLines != null && messageLines.getParent() != null) {
+            content.getChildren().remove(messageLines);
+        }
+    }
+
+    void showOptions(OptionIndex options, String selectedValue) {
+        if (optionList == null) {
+            createOptionPicker();
+        }
+
+        this.options = options;
+        optionFilter.clear();
+        optionList.setItems(FXCollections.observableList(options.filter(null)));
+        if (selectedValue != null) {
+            optionList.getSelectionModel().select(selectedValue);
+            optionList.scrollTo(selectedValue);
+        }
+        inputContent().getChildren().addAll(optionFilter, optionList);
+    }
+
+    String getSelectedOption() {
+        return options == null ? null : optionList.getSelectionModel().getSelectedItem();
+    }
+
+    // Built on first use only; a fixed cell size keeps the list virtualised at any option count
+    private void createOptionPicker() {
+        optionFilter = new TextField();
+        optionFilter.setPromptText("Search");
+        optionFilter.textProperty().addListener((observable, oldValue, prefix) -> {
+            if (options != null) {
+                optionList.setItems(FXCollections.observableList(options.filter(prefix)));
+            }
+        });
+
+        optionList = new ListView<>();
+        optionList.setFixedCellSize(OPTION_CELL_HEIGHT);
+        optionList.setPrefHeight(OPTION_CELL_HEIGHT * 5 + 2);
+        optionList.setPrefWidth(POPUP_WIDTH);
+    }
+
+    void reset() {
+        onAttentionChanged = null;
+        popup.hide();
+        popup.setOpacity(1);
+
+        content.setTranslateX(0);
+        content.setRotate(0);
+        content.setOpacity(1);
+
+        messageLayout.getChildren().clear();
+        messageContent.getChildren().retainAll(messageLayout);
+        content.getChildren().retainAll(messageContent);
+
+        title.setText(null);
+        message.setText(null);
+        app.setText(null);
+        counter.setText(null);
+        if (status != null) {
+            status.setText(null);
+        }
+        circleIcon.setFill(null);
+        squareIcon.setFill(null);
+        if (inputContent != null) {
+            inputContent.getChildren().clear();
+        }
+        if (actionsContent != null) {
+            actionsContent.getChildren().clear();
+        }
+        if (textField != null) {
+            textField.clear();
+        }
+        if (comboBox != null) {
+            comboBox.getItems().clear();
+            comboBox.setValue(null);
+        }
+        if (okButton != null) {
+            okButton.setOnAction(null);
+            okButton.setDisable(false);
+        }
+        if (cancelButton != null) {
+            cancelButton.setOnAction(null);
+            cancelButton.setDisable(false);
+        }
+        content.pseudoClassStateChanged(PENDING, false);
+        content.pseudoClassStateChanged(FAILED, false);
+        if (messageLines != null) {
+            shownLines = null;
+            messageLines.setItems(null);
+        }
+        if (optionList != null) {
+            options = null;
+            optionFilter.clear();
+            optionList.setItems(null);
+        }
+
+        backgroundOpacity = 1;
+        hovered = false;
+        engaged = false;
+        onExpandToggled = null;
+    }
+
+    private static String locateStylesheet() {
+        URL resource = NotificationWindow.class.getResource("/notify.css");
+        if (resource != null) {
+            return resource.toExternalForm();
+        }
+
+        return Paths.get("resources", "notify.css").toUri().toString();
+    }
+}
@@ -1,70 +1,57 @@
 package notification;
 
-import javafx.animation.*;
-import javafx.beans.property.SimpleStringProperty;
-import javafx.beans.property.StringProperty;
-import javafx.concurrent.Task;
+import javafx.application.Platform;
+import javafx.beans.value.ChangeListener;
+import javafx.beans.value.ObservableValue;
 import javafx.event.ActionEvent;
 import javafx.event.EventHandler;
-import javafx.geometry.Insets;
 import javafx.geometry.Rectangle2D;
-import javafx.scene.Scene;
 import javafx.scene.control.Button;
 import javafx.scene.control.ComboBox;
-import javafx.scene.control.Label;
-import javafx.scene.control.TextField;
-import javafx.scene.image.Image;
-import javafx.scene.input.MouseEvent;
-import javafx.scene.layout.HBox;
+import javafx.scene.control.ProgressBar;
 import javafx.scene.layout.VBox;
-import javafx.scene.media.Media;
-import javafx.scene.media.MediaPlayer;
 import javafx.scene.paint.Color;
-import javafx.scene.paint.ImagePattern;
-import javafx.scene.shape.*;
-import javafx.scene.shape.Rectangle;
 import javafx.scene.shape.Shape;
-import javafx.scene.text.Font;
 import javafx.stage.Screen;
 import javafx.stage.Stage;
-import javafx.stage.StageStyle;
 import javafx.util.Duration;
 
-import java.awt.*;
 import java.io.File;
 import java.net.MalformedURLException;
-import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+import java.util.function.DoubleConsumer;
 
 public class Notify {
 
     private final NotificationParameters parameters;
-
-    private final String title;
-    private final String message;
-    private final String appName;
-    private final Stage popup;
+    private final Builder builder;
 
     public Notify(Builder builder) {
-        this.title = builder.title;
-        this.message = builder.message;
-        this.appName = builder.appName;
         this.parameters = builder.parameters;
-        this.popup = builder.popup;
-        VBox content = builder.content;
+        this.builder = builder;
     }
 
     public String getTitle() {
-        return title;
+        return builder.title;
     }
 
     public String getMessage() {
-        return message;
+        return builder.message;
     }
 
     public String getAppName() {
-        return appName;
+        return builder.appName;
+    }
+
+    public int getCount() {
+        return builder.count;
     }
 
     public String getIconPathURL() {
@@ -79,43 +66,111 @@ public class Notify {
         RIGHT_BOTTOM, RIGHT_TOP, LEFT_BOTTOM, LEFT_TOP
     }
 
+    public enum Target {
+        PRIMARY, CURSOR, OWNER
+    }
+
+    public enum Outcome {
+        OK, CANCEL, EXPIRED, DISMISSED, COLLAPSED
+    }
+
+    public enum ActionState {
+        IDLE, PENDING, DONE, FAILED
+    }
+
     public enum Border {
         SQUARE, CIRCLE
     }
 
     public enum Durability {
-        SHORT, LONG, NEVER
+        SHORT(Duration.seconds(5)), LONG(Duration.seconds(24)), NEVER(Duration.INDEFINITE);
+
+        private final Duration duration;
+
+        Durability(Duration duration) {
+            this.duration = duration;
+        }
+
+        public Duration getDuration() {
+            return duration;
+        }
     }
 
     public enum Animation {
         TRANSPARENT, DISPLAY, ROTATE
     }
 
+    public enum Priority {
+        LOW, NORMAL, HIGH, CRITICAL
+    }
+
     public enum Sounds {
-        APPLE, ICQ, TELEGRAM, VK
+        APPLE("apple.wav"), ICQ("icq.wav"), TELEGRAM("telegram.wav"), VK("vk.wav");
+
+        private final String fileName;
+
+        Sounds(String fileName) {
+            this.fileName = fileName;
+        }
+
+        public String getFileName() {
+            return fileName;
+        }
     }
 
     public void show() {
-        popup.show();
+        builder.show();
+    }
+
+    public void close() {
+        builder.close(Outcome.DISMISSED);
+    }
+
+    public Outcome getOutcome() {
+        return builder.outcome;
+    }
+
+    public ActionState getActionState() {
+        return builder.actionState;
+    }
+
+    // Completes on the FX thread when the notification closes, whatever closed it
+    public CompletableFuture<NotificationResponse> getResponse() {
+        return builder.response();
+    }
+
+    public void restartExpiry() {
+        builder.restartExpiry();
+    }
+
+    // Time left before the popup expires; it stops counting while the popup is hovered, focused or held for idle
+    public Duration getRemainingTime() {
+        return builder.remainingTime();
+    }
+
+    void update(boolean titleChanged, String title, boolean messageChanged, String message,
+                boolean progressChanged, double progress) {
+        builder.update(titleChanged, title, messageChanged, message, progressChanged, progress);
+    }
+
+    public boolean isClosed() {
+        return builder.closing && builder.window == null;
     }
 
     public static class Builder {
         private final Stage primaryStage;
-        private final Stage popup = new Stage();
-        private final VBox content = new VBox();
-        private final VBox messageLayout = new VBox();
-        private final HBox messageContent = new HBox();
-        private final VBox inputContent = new VBox();
-        private final HBox actionsContent = new HBox();
 
         private final NotificationParameters parameters = new NotificationParameters();
         private static final Duration ANIMATION_DURATION = Duration.millis(600);
-        private static final double POPUP_WIDTH = 350;
-        final ComboBox<String> comboBox = new ComboBox<>();
-        private static final ArrayList<String> arrayListComboBox = new ArrayList<>();
-        private TextField textField;
-
-        private String newValueTextField;
+        private static final double POPUP_WIDTH = NotificationWindow.POPUP_WIDTH;
+        private static final Color ICON_PLACEHOLDER = Color.web("#626262");
+        private static final int LARGE_OPTIONS_THRESHOLD = 1000;
+        private static final Duration DEFAULT_ACTION_TIMEOUT = Duration.seconds(10);
+        private boolean textInput;
+
+        private NotificationWindow window;
+        private String textFieldValue;
+        private String comboBoxValue;
         private String title;
         private String message;
         private String appName;
@@ -123,7 +178,39 @@ public class Notify {
         private String cancelButtonText;
         private EventHandler<ActionEvent> okButtonListener;
         private EventHandler<ActionEvent> cancelButtonListener;
+        private Consumer<NotificationResponse> okButtonAction;
+        private Consumer<NotificationResponse> cancelButtonAction;
+        private Duration actionTimeout = DEFAULT_ACTION_TIMEOUT;
+        private ActionState actionState = ActionState.IDLE;
+        private CompletableFuture<NotificationResponse> response;
         private String comboBoxSelectedValue;
+        private List<String> comboBoxValues;
+        private OptionIndex comboBoxIndex;
+        private NotificationScheduler.Expiry expiry;
+        private IconCache.Entry loadingIcon;
+        private ChangeListener<Number> iconListener;
+        private AnimationDriver.Motion motion;
+        private final Runnable pendingDisplay = this::display;
+        private final Runnable attentionChanged = this::holdExpiry;
+        private final Runnable expandToggled = this::toggleExpanded;
+        private String previewSource;
+        private String preview;
+        private MessageLines messageLines;
+        private boolean expanded;
+        private boolean expiryHeld;
+        private boolean persistentSummary;
+        private boolean offscreen;
+        private boolean closing;
+        private Outcome outcome;
+        private long shownAt;
+        private long closeStartedAt;
+
+        private Notify notify;
+        private String dedupKey;
+        private Duration groupWindow;
+        private int count = 1;
+        private double progress = Double.NaN;
+        private long lastCoalescedAt;
 
         public Builder(Stage primaryStage) {
             this.primaryStage = primaryStage;
@@ -145,11 +232,14 @@ public class Notify {
         }
 
         public String getComboBoxValue() {
-            return comboBox.getValue();
+            if (window == null) {
+                return comboBoxValue;
+            }
+            return comboBoxIndex != null ? window.getSelectedOption() : window.getComboBoxValue();
         }
 
         public String getTextFieldValue() {
-            return textField.getText();
+            return window != null ? window.getTextFieldValue() : textFieldValue;
         }
 
         // ==================
@@ -176,6 +266,16 @@ public class Notify {
             return this;
         }
 
+        public Builder target(Target target) {
+            parameters.setTarget(target);
+            return this;
+        }
+
+        public Builder screen(Screen screen) {
+            parameters.setScreen(screen);
+            return this;
+        }
+
         public Builder textColorTitle(String textColor) {
             parameters.setTextColorTitle(textColor);
             return this;
@@ -201,122 +301,284 @@ public class Notify {
             return this;
         }
 
+        public Builder theme(Theme theme) {
+            parameters.setTheme(theme);
+            return this;
+        }
+
         public Builder iconPathURL(String iconPathURL) {
             parameters.setIconPathURL(iconPathURL);
             return this;
         }
 
+        public Builder priority(Priority priority) {
+            parameters.setPriority(priority);
+            return this;
+        }
+
+        // Longer messages show this many wrapped lines and a "Show more" link, 0 always shows all of it
+        public Builder messagePreviewLines(int lines) {
+            if (lines < 0) {
+                throw new IllegalArgumentException("lines must not be negative");
+            }
+            parameters.setMessagePreviewLines(lines);
+            return this;
+        }
+
+        // Also hold the expiry while IdleMonitor reports the user as away
+        public Builder idleAware() {
+            parameters.setIdleAware(true);
+            return this;
+        }
+
+        public Builder dedupKey(String dedupKey) {
+            this.dedupKey = dedupKey;
+            return this;
+        }
+
+        public Builder groupByApp(Duration window) {
+            if (window != null && !(window.toMillis() > 0)) {
+                throw new IllegalArgumentException("window must be positive");
+            }
+            this.groupWindow = window;
+            return this;
+        }
+
+        Builder parameters(NotificationParameters parameters) {
+            this.parameters.copyFrom(parameters);
+            return this;
+        }
+
         // ===============
         // Elements layout
         // ===============
 
         private void createBaseLayout() {
-            content.setStyle("-fx-background-color:" + parameters.getBackgroundColor());
-            content.setPadding(new Insets(5));
-            messageContent.setPadding(new Insets(5));
-            messageContent.setSpacing(10.0);
+            window.applyTheme(parameters.getTheme());
+            window.setOnAttentionChanged(attentionChanged);
 
             addImage();
             addLabel();
 
-            inputContent.setSpacing(10);
-            inputContent.setPadding(new Insets(5));
+            if (textInput) {
+                window.textField();
+            }
 
-            if (!arrayListComboBox.isEmpty()) {
+            if (comboBoxIndex != null) {
+                window.showOptions(comboBoxIndex, comboBoxSelectedValue);
+            } else if (comboBoxValues != null) {
                 addComboBox();
             }
 
-            content.getChildren().add(inputContent);
-
             addButtons();
         }
 
         public Notify build() {
-            createBaseLayout();
+            NotifyMetrics.count(NotifyMetrics.Counter.CREATED);
+            long now = System.nanoTime();
+            long groupWindowNanos = groupWindow == null ? 0 : (long) (groupWindow.toMillis() * 1_000_000);
+
+            NotificationCoalescer coalescer = NotificationCoalescer.getInstance();
+            Builder live = coalescer.find(dedupKey, appName, groupWindowNanos, now);
+            if (live != null) {
+                live.coalesce(this, now);
+                NotifyMetrics.count(NotifyMetrics.Counter.COALESCED);
+                return live.notify;
+            }
 
-            new Thread(new Task<>() {
-                @Override
-                protected Object call() throws Exception {
-                    if (parameters.getWaitTime() != Durability.NEVER) {
-                        if (parameters.getWaitTime() == Durability.SHORT)
-                            Thread.sleep(5000);
-                        else if (parameters.getWaitTime() == Durability.LONG)
-                            Thread.sleep(24000);
-                        closeAnimation();
-                    }
-                    return null;
+            lastCoalescedAt = now;
+            notify = new Notify(this);
+            coalescer.register(this, dedupKey, appName, groupWindow != null);
+            NotificationStack.getInstance().show(parameters.getPosition(), parameters.getPriority(), pendingDisplay);
+            return notify;
+        }
+
+        public CompletableFuture<NotificationResponse> buildAsync() {
+            return build().getResponse();
+        }
+
+        // Like build(), but returns a handle that any thread can use to update the popup
+        public LiveNotification buildLive() {
+            return new LiveNotification(build());
+        }
+
+        private void update(boolean titleChanged, String title, boolean messageChanged, String message,
+                            boolean progressChanged, double progress) {
+            if (closing) {
+                return;
+            }
+
+            if (titleChanged) {
+                this.title = title;
+            }
+            if (messageChanged) {
+                this.message = message;
+            }
+            if (progressChanged) {
+                this.progress = progress;
+            }
+
+            if (window != null) {
+                // Text changes can reflow the popup; a progress change alone only moves the bar
+                if (titleChanged || messageChanged || progressChanged && window.progressBar().getParent() == null) {
+                    window.messageLayout.getChildren().clear();
+                    addLabel();
+                    NotificationStack.getInstance().resize(window);
+                } else if (progressChanged) {
+                    window.progressBar().setProgress(progress);
                 }
-            }).start();
+            }
 
-            StringProperty height = new SimpleStringProperty();
-            height.addListener((observable, oldValue, newValue) -> newValueTextField = newValue);
+            restartExpiry();
+        }
 
-            if (textField != null) {
-                textField.textProperty().bindBidirectional(height);
+        // Folds a new notification into this live one: no new window, animation or sound
+        private void coalesce(Builder other, long now) {
+            count++;
+            lastCoalescedAt = now;
+
+            if (dedupKey != null && dedupKey.equals(other.dedupKey)) {
+                title = other.title;
+                message = other.message;
+            } else {
+                title = appName;
+                message = other.title != null ? other.title : other.message;
             }
 
-            content.addEventFilter(MouseEvent.MOUSE_ENTERED, MouseEvent -> popup.setOpacity(1));
-            content.addEventFilter(MouseEvent.MOUSE_EXITED, MouseEvent -> popup.setOpacity(parameters.getBackgroundOpacity()));
+            if (window != null) {
+                window.messageLayout.getChildren().clear();
+                addLabel();
+                NotificationStack.getInstance().resize(window);
+            }
 
-            Rectangle2D screenRect = Screen.getPrimary().getBounds();
-            GraphicsEnvironment ge = GraphicsEnvironment.getLocalGraphicsEnvironment();
-            GraphicsDevice defaultScreenDevice = ge.getDefaultScreenDevice();
-            GraphicsConfiguration defaultConfiguration = defaultScreenDevice.getDefaultConfiguration();
-            java.awt.Insets screenInsets = Toolkit.getDefaultToolkit().getScreenInsets(defaultConfiguration);
+            restartExpiry();
+        }
 
-            double shift = 15;
-            switch (parameters.getPosition()) {
-                case LEFT_TOP -> {
-                    popup.setX(shift + screenInsets.left);
-                    popup.setY(shift + screenInsets.top);
-                }
-                case RIGHT_TOP -> {
-                    popup.setX(screenRect.getWidth() - POPUP_WIDTH - shift - screenInsets.right);
-                    popup.setY(shift + screenInsets.top);
-                }
-                case LEFT_BOTTOM -> {
-                    popup.setX(shift + screenInsets.left);
-                    popup.setY(screenRect.getHeight() - screenInsets.bottom - 205 - shift - content.getHeight());
-                }
-                case RIGHT_BOTTOM -> {
-                    popup.setX(screenRect.getWidth() - POPUP_WIDTH - shift - screenInsets.right);
-                    popup.setY(screenRect.getHeight() - screenInsets.bottom - 205 - shift - content.getHeight());
-                }
+        long lastCoalescedAt() {
+            return lastCoalescedAt;
+        }
+
+        private void display() {
+            if (closing) {
+                return;
             }
 
-            Scene scene = new Scene(content);
-            scene.setFill(Color.TRANSPARENT);
-            popup.setWidth(POPUP_WIDTH);
-            popup.setAlwaysOnTop(true);
-            popup.initOwner(primaryStage);
-            popup.initStyle(StageStyle.TRANSPARENT);
-            popup.show();
+            long displayStart = NotifyMetrics.start();
+            shownAt = System.currentTimeMillis();
+            window = StagePool.getInstance().acquire(primaryStage);
+            createBaseLayout();
+            NotifyMetrics.stop(NotifyMetrics.Phase.LAYOUT, displayStart);
 
-            Media media = switch (parameters.getSound()) {
-                case APPLE -> new Media(Paths.get("resources/apple.wav").toUri().toString());
-                case ICQ -> new Media(Paths.get("resources/icq.wav").toUri().toString());
-                case TELEGRAM -> new Media(Paths.get("resources/telegram.wav").toUri().toString());
-                case VK -> new Media(Paths.get("resources/vk.wav").toUri().toString());
-            };
+            if (parameters.getWaitTime() != Durability.NEVER && parameters.isIdleAware()) {
+                IdleMonitor.getInstance().addListener(attentionChanged);
+            }
 
-            MediaPlayer player = new MediaPlayer(media);
-            player.play();
+            long showStart = NotifyMetrics.start();
+            Rectangle2D area = ScreenPlacement.getInstance()
+                    .workArea(parameters.getTarget(), parameters.getScreen(), primaryStage);
+            NotificationStack.getInstance().add(parameters.getPosition(), window, area);
+            window.popup.show();
+            NotifyMetrics.stop(NotifyMetrics.Phase.SHOW, showStart);
+            if (parameters.getWaitTime() != Durability.NEVER) {
+                scheduleExpiry();
+            }
+
+            long soundStart = NotifyMetrics.start();
+            SoundBank.getInstance().play(parameters.getSound());
+            NotifyMetrics.stop(NotifyMetrics.Phase.SOUND, soundStart);
 
-            popup.setScene(scene);
             openAnimation();
+            NotifyMetrics.stop(NotifyMetrics.Phase.DISPLAY, displayStart);
+            NotifyMetrics.count(NotifyMetrics.Counter.SHOWN);
+
+            // May collapse the oldest NEVER popup, so it runs once this one is fully on screen
+            if (parameters.getWaitTime() == Durability.NEVER && !persistentSummary) {
+                PersistentNotifications.getInstance().add(this);
+            }
+        }
+
+        // Lays this notification out into a window that is never shown, at the given point of its open animation
+        void renderInto(NotificationWindow target, double openProgress) {
+            // The live popup of a built builder is owned by its Notify, borrowing the field would orphan it
+            if (window != null || notify != null) {
+                throw new IllegalStateException("notification has already been built");
+            }
 
-            return new Notify(this);
+            window = target;
+            offscreen = true;
+            try {
+                createBaseLayout();
+                openFrame(target.content).accept(openProgress);
+            } finally {
+                window = null;
+                offscreen = false;
+            }
+        }
+
+        // Closes the popup into the PersistentNotifications summary
+        void collapse() {
+            close(Outcome.COLLAPSED);
+        }
+
+        String summaryLine() {
+            String line = title != null ? title : message;
+            if (line == null || appName == null) {
+                return line != null ? line : appName;
+            }
+            return appName + ": " + line;
+        }
+
+        Builder summaryBuilder() {
+            Builder summary = new Builder(primaryStage)
+                    .position(parameters.getPosition())
+                    .target(parameters.getTarget())
+                    .screen(parameters.getScreen())
+                    .theme(parameters.getTheme())
+                    .waitTime(Durability.NEVER)
+                    .sound(null)
+                    .cancelButton("Dismiss", event -> {
+                    });
+            summary.persistentSummary = true;
+            return summary;
         }
 
         public Builder textInput() {
-            textField = new TextField();
-            inputContent.getChildren().add(textField);
+            textInput = true;
             return this;
         }
 
         public Builder comboBox(String selectedValue, String... values) {
-            Collections.addAll(arrayListComboBox, values);
+            return comboBox(selectedValue, Arrays.asList(values));
+        }
+
+        public Builder comboBox(String selectedValue, List<String> values) {
+            comboBoxSelectedValue = selectedValue;
+            List<String> options = copyOptions(values);
+            if (options.size() > LARGE_OPTIONS_THRESHOLD) {
+                comboBoxIndex = OptionIndex.of(options);
+                comboBoxValues = null;
+            } else {
+                comboBoxValues = options;
+                comboBoxIndex = null;
+            }
+            return this;
+        }
+
+        // The popup keeps its own copy, later changes to the caller's list do not reach it; null entries are skipped
+        static List<String> copyOptions(List<String> values) {
+            ArrayList<String> options = new ArrayList<>(values.size());
+            for (String value : values) {
+                if (value != null) {
+                    options.add(value);
+                }
+            }
+            return Collections.unmodifiableList(options);
+        }
+
+        public Builder searchableComboBox(String selectedValue, OptionIndex options) {
             comboBoxSelectedValue = selectedValue;
+            comboBoxIndex = options;
+            comboBoxValues = null;
             return this;
         }
 
@@ -332,50 +594,59 @@ public class Notify {
             return this;
         }
 
+        // The action runs off the FX thread; the popup stays open and pending until it completes
+        public Builder okButtonAsync(String name, Consumer<NotificationResponse> action) {
+            this.okButtonText = name;
+            this.okButtonAction = action;
+            return this;
+        }
+
+        public Builder cancelButtonAsync(String name, Consumer<NotificationResponse> action) {
+            this.cancelButtonText = name;
+            this.cancelButtonAction = action;
+            return this;
+        }
+
+        public Builder actionTimeout(Duration actionTimeout) {
+            this.actionTimeout = actionTimeout;
+            return this;
+        }
+
+        // Adds a progress bar, 0..1 or negative for indeterminate; LiveNotification.setProgress moves it
+        public Builder progress(double progress) {
+            this.progress = progress;
+            return this;
+        }
+
         // ==================
         // Elements functions
         // ==================
 
         private void addComboBox() {
-            comboBox.getItems().addAll(arrayListComboBox);
+            ComboBox<String> comboBox = window.comboBox();
+            comboBox.getItems().setAll(comboBoxValues);
             comboBox.setValue(comboBoxSelectedValue);
-            comboBox.setVisibleRowCount(5);
-            comboBox.setPrefWidth(POPUP_WIDTH);
-            comboBox.setStyle("-fx-background-color: #ffffff; -fx-text-fill: #000000");
-            comboBox.setPadding(new Insets(0, 5, 0, 5));
-            inputContent.getChildren().addAll(comboBox);
         }
 
         private void addButtons() {
-            actionsContent.setPrefWidth(POPUP_WIDTH);
-            actionsContent.setSpacing(10.0);
-            actionsContent.setPadding(new Insets(5));
-
-            if (this.okButtonListener != null) {
-                Button okButton = new Button(this.okButtonText);
-                okButton.setPrefWidth(actionsContent.getPrefWidth());
-                okButton.setStyle("-fx-background-color: #626262; -fx-text-fill: white");
-                okButton.setOnAction(this.okButtonListener);
-                okButton.addEventFilter(MouseEvent.MOUSE_PRESSED, MouseEvent -> closeAnimation());
-                actionsContent.getChildren().add(okButton);
+            if (this.okButtonListener != null || this.okButtonAction != null) {
+                Button okButton = window.okButton();
+                okButton.setText(this.okButtonText);
+                okButton.setOnAction(event -> buttonPressed(true, event));
             }
 
-            if (this.cancelButtonListener != null) {
-                Button cancelButton = new Button(this.cancelButtonText);
-                cancelButton.setPrefWidth(actionsContent.getPrefWidth());
-                cancelButton.setStyle("-fx-background-color: #626262; -fx-text-fill: white");
-                cancelButton.setOnAction(this.cancelButtonListener);
-                cancelButton.addEventFilter(MouseEvent.MOUSE_PRESSED, MouseEvent -> closeAnimation());
-                actionsContent.getChildren().add(cancelButton);
+            if (this.cancelButtonListener != null || this.cancelButtonAction != null) {
+                Button cancelButton = window.cancelButton();
+                cancelButton.setText(this.cancelButtonText);
+                cancelButton.setOnAction(event -> buttonPressed(false, event));
             }
-
-            content.getChildren().add(actionsContent);
         }
 
         private void addImage() {
             String path = parameters.getIconPathURL();
 
-            if (!parameters.getIconPathURL().isEmpty()) {
+            if (path != null && !path.isEmpty()) {
+                long imageStart = NotifyMetrics.start();
                 if (!parameters.getIconPathURL().startsWith("http")) {
                     try {
                         path = new File(parameters.getIconPathURL()).toURI().toURL().toString();
@@ -385,40 +656,324 @@ public class Notify {
                 }
 
                 Shape iconBorder = switch (parameters.getIconBorder()) {
-                    case CIRCLE -> new Circle(80, 80, 40);
-                    case SQUARE -> new Rectangle(0, 0, 80, 80);
+                    case CIRCLE -> window.circleIcon;
+                    case SQUARE -> window.squareIcon;
                 };
-                iconBorder.setFill(new ImagePattern(new Image(path)));
-                messageContent.getChildren().add(iconBorder);
+                IconCache.Entry icon = IconCache.getInstance().get(path, parameters.getIconBorder());
+                if (icon.isLoaded()) {
+                    iconBorder.setFill(icon.getPattern());
+                } else {
+                    iconBorder.setFill(ICON_PLACEHOLDER);
+                    // An off-screen frame is taken right away, so there is no window to update later
+                    if (!offscreen) {
+                        whenIconLoaded(icon, iconBorder, imageStart);
+                    }
+                }
+                window.messageContent.getChildren().add(0, iconBorder);
+                NotifyMetrics.stop(NotifyMetrics.Phase.IMAGE, imageStart);
             }
         }
 
+        private void whenIconLoaded(IconCache.Entry icon, Shape iconBorder, long requestedAt) {
+            NotificationWindow boundWindow = window;
+            loadingIcon = icon;
+            iconListener = new ChangeListener<>() {
+                @Override
+                public void changed(ObservableValue<? extends Number> observable, Number oldValue, Number progress) {
+                    if (progress.doubleValue() < 1) {
+                        return;
+                    }
+                    observable.removeListener(this);
+                    loadingIcon = null;
+                    iconListener = null;
+                    NotifyMetrics.stop(NotifyMetrics.Phase.ICON_LOAD, requestedAt);
+
+                    // The window may have been recycled for another notification while the icon was loading
+                    if (window == boundWindow && !icon.image.isError()) {
+                        iconBorder.setFill(icon.getPattern());
+                    }
+                }
+            };
+            icon.image.progressProperty().addListener(iconListener);
+        }
+
         private void addLabel() {
             if (this.title != null) {
-                Label title = new Label(this.title);
-                title.setFont(Font.font(24));
-                title.setStyle("-fx-text-fill:" + parameters.getTextColorTitle());
-                messageLayout.getChildren().add(title);
+                window.title.setText(this.title);
+                window.messageLayout.getChildren().add(window.title);
+            }
+
+            if (this.count > 1) {
+                window.counter.setText("×" + this.count);
+                window.messageLayout.getChildren().add(window.counter);
             }
 
             if (this.message != null) {
-                Label message = new Label(this.message);
-                message.setMaxWidth(POPUP_WIDTH - 100);
-                message.setWrapText(true);
-                message.setFont(Font.font(18));
-                message.setStyle("-fx-text-fill:" + parameters.getTextColorMessage());
-                messageLayout.getChildren().add(message);
+                addMessage();
+            } else {
+                window.hideMessageLines();
             }
 
             if (this.appName != null) {
-                Label app = new Label(this.appName);
-                app.setFont(Font.font(14));
-                app.setStyle("-fx-text-fill:" + parameters.getTextColorMessage());
-                messageLayout.getChildren().add(app);
+                window.app.setText(this.appName);
+                window.messageLayout.getChildren().add(window.app);
+            }
+
+            if (!Double.isNaN(this.progress)) {
+                ProgressBar progressBar = window.progressBar();
+                progressBar.setProgress(this.progress);
+                window.messageLayout.getChildren().add(progressBar);
+            }
+
+            window.restoreActionState();
+        }
+
+        // Only the preview is laid out; the full text reaches the scene graph as virtualised rows once expanded
+        private void addMessage() {
+            String preview = messagePreview();
+            if (preview == null) {
+                window.hideMessageLines();
+                window.message.setText(this.message);
+                window.messageLayout.getChildren().add(window.message);
+                return;
+            }
+
+            if (expanded) {
+                if (messageLines == null) {
+                    messageLines = MessageLines.split(this.message, window.messageLineColumns());
+                }
+                window.showMessageLines(messageLines);
+            } else {
+                window.hideMessageLines();
+                window.message.setText(preview);
+                window.messageLayout.getChildren().add(window.message);
+            }
+            window.messageLayout.getChildren().add(window.expandLink(expanded ? "Show less" : "Show more", expandToggled));
+        }
+
+        // Worked out once per message text, a live update or coalesce with new text starts over
+        private String messagePreview() {
+            int lines = parameters.getMessagePreviewLines();
+            if (lines == 0) {
+                return null;
+            }
+
+            if (previewSource != this.message) {
+                previewSource = this.message;
+                preview = TextMetrics.of(window.message.getFont()).preview(this.message, window.message.getWrappingWidth(), lines);
+                messageLines = null;
+            }
+            return preview;
+        }
+
+        private void toggleExpanded() {
+            if (closing || window == null) {
+                return;
+            }
+
+            expanded = !expanded;
+            window.messageLayout.getChildren().clear();
+            addLabel();
+            NotificationStack.getInstance().resize(window);
+        }
+
+        // =========
+        // Lifecycle
+        // =========
+
+        private void show() {
+            if (window != null && !closing) {
+                window.popup.show();
+            }
+        }
+
+        // Mouse clicks and keyboard activation both arrive here as the button's action
+        private void buttonPressed(boolean ok, ActionEvent event) {
+            if (actionState == ActionState.PENDING || closing) {
+                return;
+            }
+
+            EventHandler<ActionEvent> listener = ok ? okButtonListener : cancelButtonListener;
+            if (listener != null) {
+                listener.handle(event);
+            }
+
+            Outcome pressed = ok ? Outcome.OK : Outcome.CANCEL;
+            Consumer<NotificationResponse> action = ok ? okButtonAction : cancelButtonAction;
+            if (action == null) {
+                close(pressed);
+                return;
             }
 
-            messageContent.getChildren().add(messageLayout);
-            content.getChildren().add(messageContent);
+            actionState = ActionState.PENDING;
+            window.setActionState(actionState, "Working…");
+            NotificationStack.getInstance().resize(window);
+            NotificationResponse snapshot = new NotificationResponse(pressed, getTextFieldValue(), getComboBoxValue());
+            ActionExecutor.getInstance().run(action, snapshot, actionTimeout).whenComplete((ignored, error) ->
+                    Platform.runLater(() -> actionCompleted(pressed, error)));
+        }
+
+        private void actionCompleted(Outcome pressed, Throwable error) {
+            if (error == null) {
+                actionState = ActionState.DONE;
+                close(pressed);
+                return;
+            }
+
+            actionState = ActionState.FAILED;
+            if (closing) {
+                return;
+            }
+
+            // Leave the popup up so the user can see the failure, retry or dismiss it
+            Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            window.setActionState(actionState, cause instanceof TimeoutException ? "Timed out"
+                    : "Failed: " + (cause.getMessage() != null ? cause.getMessage() : cause.getClass().getSimpleName()));
+            NotificationStack.getInstance().resize(window);
+            if (parameters.getWaitTime() != Durability.NEVER && (expiry == null || !expiry.isPending())) {
+                scheduleExpiry();
+            }
+        }
+
+        private void scheduleExpiry() {
+            expiry = NotificationScheduler.getInstance().schedule(parameters.getWaitTime().getDuration(), this::expire);
+            expiryHeld = false;
+            holdExpiry();
+        }
+
+        // Hovering or focusing the popup, or the user being away, stops the clock until they are done
+        private void holdExpiry() {
+            if (expiry == null || closing) {
+                return;
+            }
+
+            boolean held = window.hasAttention() || parameters.isIdleAware() && IdleMonitor.getInstance().isIdle();
+            if (held == expiryHeld) {
+                return;
+            }
+            expiryHeld = held;
+            if (held) {
+                expiry.pause();
+            } else {
+                expiry.resume();
+            }
+        }
+
+        private Duration remainingTime() {
+            if (closing) {
+                return Duration.ZERO;
+            }
+            return expiry != null ? expiry.getRemaining() : parameters.getWaitTime().getDuration();
+        }
+
+        private void expire() {
+            // A pending action keeps the popup open; a failure restarts the expiry
+            if (actionState != ActionState.PENDING) {
+                close(Outcome.EXPIRED);
+            }
+        }
+
+        private CompletableFuture<NotificationResponse> response() {
+            if (response == null) {
+                response = new CompletableFuture<>();
+                if (closing) {
+                    response.complete(new NotificationResponse(outcome, textFieldValue, comboBoxValue));
+                }
+            }
+            return response;
+        }
+
+        private void close(Outcome outcome) {
+            if (closing) {
+                return;
+            }
+            closing = true;
+            this.outcome = outcome;
+            NotificationCoalescer.getInstance().unregister(this, dedupKey, appName);
+            if (parameters.getWaitTime() == Durability.NEVER) {
+                PersistentNotifications.getInstance().remove(this);
+            } else if (parameters.isIdleAware()) {
+                IdleMonitor.getInstance().removeListener(attentionChanged);
+            }
+
+            if (window == null) {
+                NotificationStack.getInstance().cancel(parameters.getPosition(), pendingDisplay);
+                record();
+                respond();
+                dispose();
+                return;
+            }
+
+            if (expiry != null) {
+                expiry.cancel();
+            }
+
+            // Keep the user's answers readable after the window goes back to the pool
+            textFieldValue = window.getTextFieldValue();
+            comboBoxValue = getComboBoxValue();
+            record();
+            respond();
+            closeAnimation();
+        }
+
+        private void respond() {
+            if (response != null) {
+                response.complete(new NotificationResponse(outcome, textFieldValue, comboBoxValue));
+            }
+        }
+
+        private void record() {
+            NotificationHistory history = NotificationHistory.getInstance();
+            if (history != null) {
+                history.record(new HistoryEntry(-1, shownAt, System.currentTimeMillis(), count, outcome,
+                        parameters, title, message, appName, textFieldValue, comboBoxValue));
+            }
+        }
+
+        private void release() {
+            NotifyMetrics.stop(NotifyMetrics.Phase.CLOSE_ANIMATION, closeStartedAt);
+            NotifyMetrics.count(NotifyMetrics.Counter.CLOSED);
+            motion = null;
+            NotificationWindow closed = window;
+            window = null;
+
+            // Recycle the window before draining so a queued notification can pick it up
+            NotificationStack stack = NotificationStack.getInstance();
+            stack.remove(closed);
+            StagePool.getInstance().release(closed);
+            dispose();
+            stack.drain(parameters.getPosition());
+        }
+
+        // The Notify handle outlives the popup, so drop everything except the outcome and the text it reports
+        private void dispose() {
+            if (iconListener != null) {
+                loadingIcon.image.progressProperty().removeListener(iconListener);
+                loadingIcon = null;
+                iconListener = null;
+            }
+
+            expiry = null;
+            okButtonListener = null;
+            cancelButtonListener = null;
+            okButtonAction = null;
+            cancelButtonAction = null;
+            comboBoxValues = null;
+            comboBoxIndex = null;
+            comboBoxSelectedValue = null;
+            previewSource = null;
+            preview = null;
+            messageLines = null;
+            LeakDetector leakDetector = LeakDetector.getInstance();
+            if (leakDetector.isEnabled()) {
+                leakDetector.closed(notify, title != null ? '"' + title + '"' : "without a title");
+            }
+        }
+
+        private void restartExpiry() {
+            if (expiry != null && !closing) {
+                expiry.reschedule(parameters.getWaitTime().getDuration());
+            }
         }
 
         // ==========
@@ -426,59 +981,54 @@ public class Notify {
         // ==========
 
         private void openAnimation() {
+            long openStart = NotifyMetrics.start();
+            Runnable opened = openStart == 0 ? null : () -> NotifyMetrics.stop(NotifyMetrics.Phase.OPEN_ANIMATION, openStart);
+            animate(openFrame(window.content), opened);
+        }
+
+        // Shared by the popup and OffscreenRenderer, which samples the same frames without a timer
+        private DoubleConsumer openFrame(VBox content) {
             int xDirection = parameters.getPosition() == Position.RIGHT_BOTTOM || parameters.getPosition() == Position.RIGHT_TOP ? 1 : -1;
 
-            switch (parameters.getAnimation()) {
+            return switch (parameters.getAnimation()) {
                 case ROTATE -> {
-                    RotateTransition animation = new RotateTransition(Builder.ANIMATION_DURATION, content);
-                    animation.setFromAngle(xDirection == 1 ? 360 : 0);
-                    animation.setToAngle(xDirection == 1 ? 0 : 360);
-                    animation.setCycleCount(1);
-                    animation.play();
-                }
-                case TRANSPARENT -> {
-                    FadeTransition animation = new FadeTransition(Builder.ANIMATION_DURATION, content);
-                    animation.setFromValue(0);
-                    animation.setToValue(1);
-                    animation.setCycleCount(1);
-                    animation.play();
+                    double from = xDirection == 1 ? 360 : 0;
+                    double to = xDirection == 1 ? 0 : 360;
+                    yield progress -> content.setRotate(from + (to - from) * progress);
                 }
+                case TRANSPARENT -> content::setOpacity;
                 case DISPLAY -> {
-                    TranslateTransition animation = new TranslateTransition(Builder.ANIMATION_DURATION, content);
-                    animation.setByX(-xDirection * Builder.POPUP_WIDTH);
-                    animation.setFromX(xDirection * Builder.POPUP_WIDTH);
-                    animation.play();
+                    double from = xDirection * Builder.POPUP_WIDTH;
+                    yield progress -> content.setTranslateX(from * (1 - progress));
                 }
-            }
+            };
         }
 
         private void closeAnimation() {
             int xDirection = parameters.getPosition() == Position.RIGHT_BOTTOM || parameters.getPosition() == Position.RIGHT_TOP ? 1 : -1;
+            VBox content = window.content;
+            closeStartedAt = NotifyMetrics.start();
 
             switch (parameters.getAnimation()) {
                 case ROTATE -> {
-                    RotateTransition animation = new RotateTransition(Builder.ANIMATION_DURATION, content);
-                    animation.setFromAngle(xDirection == 1 ? 0 : 360);
-                    animation.setToAngle(xDirection == 1 ? 360 : 0);
-                    animation.setCycleCount(1);
-                    animation.setOnFinished(event -> popup.close());
-                    animation.play();
-                }
-                case TRANSPARENT -> {
-                    FadeTransition animation = new FadeTransition(Builder.ANIMATION_DURATION, content);
-                    animation.setFromValue(1);
-                    animation.setToValue(0);
-                    animation.setCycleCount(1);
-                    animation.setOnFinished(event -> popup.close());
-                    animation.play();
+                    double from = xDirection == 1 ? 0 : 360;
+                    double to = xDirection == 1 ? 360 : 0;
+                    animate(progress -> content.setRotate(from + (to - from) * progress), this::release);
                 }
+                case TRANSPARENT -> animate(progress -> content.setOpacity(1 - progress), this::release);
                 case DISPLAY -> {
-                    TranslateTransition animation = new TranslateTransition(Builder.ANIMATION_DURATION, content);
-                    animation.setByX(xDirection * Builder.POPUP_WIDTH);
-                    animation.setOnFinished(event -> popup.close());
-                    animation.play();
+                    double from = content.getTranslateX();
+                    double by = xDirection * Builder.POPUP_WIDTH;
+                    animate(progress -> content.setTranslateX(from + by * progress), this::release);
                 }
             }
         }
+
+        private void animate(DoubleConsumer update, Runnable onFinished) {
+            if (motion != null) {
+                motion.stop();
+            }
+            motion = AnimationDriver.getInstance().animate(window.content, ANIMATION_DURATION, update, onFinished);
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,42 @@
+package notification;
+
+import javafx.application.Application;
+import javafx.application.Platform;
+import javafx.stage.Stage;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.Map;
+
+// Resident process that shows notifications sent by other processes:
+// NotifyDaemon --port=7777 or NotifyDaemon --socket=/tmp/notify.sock
+public class NotifyDaemon extends Application {
+
+    private IngestionServer server;
+
+    public static void main(String[] args) {
+        launch(args);
+    }
+
+    @Override
+    public void start(Stage primaryStage) throws IOException {
+        Platform.setImplicitExit(false);
+        StagePool.getInstance().prewarm(primaryStage, 2);
+
+        NotificationDispatcher dispatcher = new NotificationDispatcher(primaryStage);
+        Map<String, String> named = getParameters().getNamed();
+        if (named.containsKey("socket")) {
+            server = IngestionServer.unixSocket(dispatcher, Paths.get(named.get("socket")));
+        } else {
+            server = IngestionServer.tcp(dispatcher, Integer.parseInt(named.getOrDefault("port", "7777")));
+        }
+        System.out.println("Listening on " + server.getLocalAddress());
+    }
+
+    @Override
+    public void stop() {
+        if (server != null) {
+            server.close();
+        }
+    }
+}
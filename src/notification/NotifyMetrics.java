@@ -0,0 +1,164 @@
+package notification;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+public class NotifyMetrics implements NotifyMetricsMXBean {
+
+    private static final NotifyMetrics INSTANCE = new NotifyMetrics();
+    private static final String OBJECT_NAME = "notification:type=NotifyMetrics";
+
+    private final LatencyHistogram[] histograms = new LatencyHistogram[Phase.values().length];
+    private final LongAdder[] counters = new LongAdder[Counter.values().length];
+    private volatile MetricsListener[] listeners = new MetricsListener[0];
+    private volatile boolean enabled;
+
+    public enum Phase {
+        LAYOUT, IMAGE, ICON_LOAD, SHOW, SOUND, DISPLAY, OPEN_ANIMATION, CLOSE_ANIMATION
+    }
+
+    public enum Counter {
+        CREATED, COALESCED, SHOWN, CLOSED, DROPPED
+    }
+
+    private NotifyMetrics() {
+        for (int i = 0; i < histograms.length; i++) {
+            histograms[i] = new LatencyHistogram();
+        }
+        for (int i = 0; i < counters.length; i++) {
+            counters[i] = new LongAdder();
+        }
+    }
+
+    public static NotifyMetrics getInstance() {
+        return INSTANCE;
+    }
+
+    // While disabled every probe is a single volatile read
+    static long start() {
+        return INSTANCE.enabled ? System.nanoTime() : 0;
+    }
+
+    static void stop(Phase phase, long start) {
+        if (start != 0) {
+            INSTANCE.record(phase, System.nanoTime() - start);
+        }
+    }
+
+    static void count(Counter counter) {
+        if (INSTANCE.enabled) {
+            INSTANCE.increment(counter);
+        }
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public LatencyHistogram getHistogram(Phase phase) {
+        return histograms[phase.ordinal()];
+    }
+
+    public long getCount(Counter counter) {
+        return counters[counter.ordinal()].sum();
+    }
+
+    public synchronized void addListener(MetricsListener listener) {
+        MetricsListener[] current = listeners;
+        MetricsListener[] updated = Arrays.copyOf(current, current.length + 1);
+        updated[current.length] = listener;
+        listeners = updated;
+    }
+
+    public synchronized void removeListener(MetricsListener listener) {
+        listeners = Arrays.stream(listeners).filter(registered -> registered != listener)
+                .toArray(MetricsListener[]::new);
+    }
+
+    public void registerMBean() {
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, new ObjectName(OBJECT_NAME));
+        } catch (JMException e) {
+            e.printStackTrace();
+        }
+    }
+
+    @Override
+    public long getCreatedCount() {
+        return getCount(Counter.CREATED);
+    }
+
+    @Override
+    public long getCoalescedCount() {
+        return getCount(Counter.COALESCED);
+    }
+
+    @Override
+    public long getShownCount() {
+        return getCount(Counter.SHOWN);
+    }
+
+    @Override
+    public long getClosedCount() {
+        return getCount(Counter.CLOSED);
+    }
+
+    @Override
+    public long getDroppedCount() {
+        return getCount(Counter.DROPPED);
+    }
+
+    @Override
+    public int getLiveCount() {
+        return NotificationStack.getInstance().getLiveCount();
+    }
+
+    @Override
+    public int getIdlePooledCount() {
+        return StagePool.getInstance().getIdleCount();
+    }
+
+    @Override
+    public Map<String, PhaseSummary> getPhases() {
+        Map<String, PhaseSummary> phases = new LinkedHashMap<>();
+        for (Phase phase : Phase.values()) {
+            phases.put(phase.name(), new PhaseSummary(getHistogram(phase)));
+        }
+        return phases;
+    }
+
+    @Override
+    public void reset() {
+        for (LatencyHistogram histogram : histograms) {
+            histogram.reset();
+        }
+        for (LongAdder counter : counters) {
+            counter.reset();
+        }
+    }
+
+    private void record(Phase phase, long nanos) {
+        histograms[phase.ordinal()].record(nanos);
+        for (MetricsListener listener : listeners) {
+            listener.phaseRecorded(phase, nanos);
+        }
+    }
+
+    private void increment(Counter counter) {
+        counters[counter.ordinal()].increment();
+        for (MetricsListener listener : listeners) {
+            listener.counted(counter);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package notification;
+
+import java.util.Map;
+
+public interface NotifyMetricsMXBean {
+
+    boolean isEnabled();
+
+    void setEnabled(boolean enabled);
+
+    long getCreatedCount();
+
+    long getCoalescedCount();
+
+    long getShownCount();
+
+    long getClosedCount();
+
+    long getDroppedCount();
+
+    int getLiveCount();
+
+    int getIdlePooledCount();
+
+    Map<String, PhaseSummary> getPhases();
+
+    void reset();
+}
@@ -0,0 +1,78 @@
+package notification;
+
+import javafx.geometry.Rectangle2D;
+import javafx.scene.SnapshotParameters;
+import javafx.scene.image.Image;
+import javafx.scene.image.WritableImage;
+import javafx.scene.layout.VBox;
+import javafx.scene.paint.Color;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+// Renders notifications to images without opening a window: same layout, theme and open animation frames as on
+// screen, snapshotted from a window that is never shown. Use it on the FX thread; the builders are not shown.
+public final class OffscreenRenderer {
+
+    private static final int MAX_BUFFERS = 8;
+
+    private final NotificationWindow window = new NotificationWindow(null);
+    private final SnapshotParameters snapshot = new SnapshotParameters();
+    private final PngEncoder png = new PngEncoder();
+
+    // Heights repeat across notifications, so one buffer per recent height is reused instead of a new image per frame
+    private final LinkedHashMap<Integer, WritableImage> buffers = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, WritableImage> eldest) {
+            return size() > MAX_BUFFERS;
+        }
+    };
+
+    public OffscreenRenderer() {
+        snapshot.setFill(Color.TRANSPARENT);
+    }
+
+    // The returned image is a shared buffer, valid until the next notification of the same height is rendered.
+    // Only builders that have not been built can be rendered, otherwise IllegalStateException is thrown.
+    public WritableImage render(Notify.Builder notification) {
+        return render(notification, 1);
+    }
+
+    // openProgress 0..1 samples the open animation; like the popup, content moved out of its bounds is clipped
+    public WritableImage render(Notify.Builder notification, double openProgress) {
+        notification.renderInto(window, openProgress);
+        try {
+            VBox content = window.content;
+            content.applyCss();
+            int height = (int) Math.ceil(content.prefHeight(NotificationWindow.POPUP_WIDTH));
+            content.resize(NotificationWindow.POPUP_WIDTH, height);
+            content.layout();
+
+            snapshot.setViewport(new Rectangle2D(0, 0, NotificationWindow.POPUP_WIDTH, height));
+            return content.snapshot(snapshot, buffer(height));
+        } finally {
+            window.reset();
+        }
+    }
+
+    // The whole batch is laid out and snapshotted within one FX event, none of it waits for a pulse;
+    // like render, it throws IllegalStateException for a builder that has already been built
+    public void renderAll(List<Notify.Builder> notifications, BiConsumer<Notify.Builder, WritableImage> sink) {
+        for (int i = 0; i < notifications.size(); i++) {
+            Notify.Builder notification = notifications.get(i);
+            sink.accept(notification, render(notification));
+        }
+    }
+
+    public void writePng(Image image, OutputStream out) throws IOException {
+        png.encode(image, out);
+    }
+
+    private WritableImage buffer(int height) {
+        return buffers.computeIfAbsent(height, key -> new WritableImage((int) NotificationWindow.POPUP_WIDTH, key));
+    }
+}
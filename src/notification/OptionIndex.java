@@ -0,0 +1,73 @@
+package notification;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+public final class OptionIndex {
+
+    private final String[] keys;
+    private final String[] values;
+    private final List<String> all;
+
+    private OptionIndex(Collection<String> options) {
+        String[][] pairs = new String[options.size()][];
+        int count = 0;
+        for (String option : options) {
+            pairs[count++] = new String[]{normalize(option), option};
+        }
+        Arrays.sort(pairs, Comparator.comparing(pair -> pair[0]));
+
+        keys = new String[pairs.length];
+        values = new String[pairs.length];
+        for (int i = 0; i < pairs.length; i++) {
+            keys[i] = pairs[i][0];
+            values[i] = pairs[i][1];
+        }
+        all = List.of(values);
+    }
+
+    public static OptionIndex of(Collection<String> options) {
+        return new OptionIndex(options);
+    }
+
+    public static OptionIndex of(String... options) {
+        return new OptionIndex(Arrays.asList(options));
+    }
+
+    public int size() {
+        return values.length;
+    }
+
+    // Returns a view of the matching range, no copy: two binary searches over the sorted keys
+    public List<String> filter(String prefix) {
+        if (prefix == null || prefix.isEmpty()) {
+            return all;
+        }
+
+        String key = normalize(prefix);
+        int from = lowerBound(key);
+        int to = lowerBound(key + Character.MAX_VALUE);
+        return all.subList(from, to);
+    }
+
+    private int lowerBound(String key) {
+        int low = 0;
+        int high = keys.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (keys[middle].compareTo(key) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private static String normalize(String value) {
+        return value.toLowerCase(Locale.ROOT);
+    }
+}
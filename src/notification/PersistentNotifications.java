@@ -0,0 +1,86 @@
+package notification;
+
+import java.util.ArrayDeque;
+
+// Optional cap on NEVER popups: past the limit the oldest one is closed and folded into a single summary popup
+public final class PersistentNotifications {
+
+    private static final PersistentNotifications INSTANCE = new PersistentNotifications();
+    private static final int SUMMARY_LINES = 3;
+
+    private final ArrayDeque<Notify.Builder> live = new ArrayDeque<>();
+    private final ArrayDeque<String> recent = new ArrayDeque<>();
+    private int limit;
+    private int collapsed;
+    private Notify summary;
+
+    private PersistentNotifications() {
+    }
+
+    public static PersistentNotifications getInstance() {
+        return INSTANCE;
+    }
+
+    // 0 keeps every NEVER popup open, which is the default
+    public void setLimit(int limit) {
+        if (limit < 0) {
+            throw new IllegalArgumentException("limit must not be negative");
+        }
+
+        this.limit = limit;
+        trim();
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getCount() {
+        return live.size();
+    }
+
+    void add(Notify.Builder builder) {
+        live.add(builder);
+        trim();
+    }
+
+    void remove(Notify.Builder builder) {
+        live.remove(builder);
+    }
+
+    private void trim() {
+        while (limit > 0 && live.size() > limit) {
+            Notify.Builder oldest = live.poll();
+            summarize(oldest);
+            oldest.collapse();
+        }
+    }
+
+    // The summary keeps the total and the most recent few lines; once dismissed the next collapse starts a new one
+    private void summarize(Notify.Builder oldest) {
+        if (summary != null && summary.getOutcome() != null) {
+            summary = null;
+        }
+        if (summary == null) {
+            collapsed = 0;
+            recent.clear();
+        }
+
+        collapsed++;
+        String line = oldest.summaryLine();
+        if (line != null) {
+            recent.addFirst(line);
+            if (recent.size() > SUMMARY_LINES) {
+                recent.removeLast();
+            }
+        }
+
+        String title = collapsed == 1 ? "1 earlier notification" : collapsed + " earlier notifications";
+        String message = recent.isEmpty() ? null : String.join("\n", recent);
+        if (summary == null) {
+            summary = oldest.summaryBuilder().title(title).message(message).build();
+        } else {
+            summary.update(true, title, true, message, false, Double.NaN);
+        }
+    }
+}
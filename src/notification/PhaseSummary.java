@@ -0,0 +1,38 @@
+package notification;
+
+public final class PhaseSummary {
+
+    private final long count;
+    private final long meanNanos;
+    private final long p50Nanos;
+    private final long p99Nanos;
+    private final long maxNanos;
+
+    PhaseSummary(LatencyHistogram histogram) {
+        this.count = histogram.getCount();
+        this.meanNanos = histogram.getMeanNanos();
+        this.p50Nanos = histogram.getPercentileNanos(50);
+        this.p99Nanos = histogram.getPercentileNanos(99);
+        this.maxNanos = histogram.getMaxNanos();
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getMeanNanos() {
+        return meanNanos;
+    }
+
+    public long getP50Nanos() {
+        return p50Nanos;
+    }
+
+    public long getP99Nanos() {
+        return p99Nanos;
+    }
+
+    public long getMaxNanos() {
+        return maxNanos;
+    }
+}
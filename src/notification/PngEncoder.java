@@ -0,0 +1,102 @@
+package notification;
+
+import javafx.scene.image.Image;
+import javafx.scene.image.PixelFormat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+// Minimal 8-bit RGBA PNG writer, javafx.swing is not needed; the pixel, row and deflate buffers are reused
+final class PngEncoder {
+
+    private static final byte[] SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+    private static final byte[] IHDR = {'I', 'H', 'D', 'R'};
+    private static final byte[] IDAT = {'I', 'D', 'A', 'T'};
+    private static final byte[] IEND = {'I', 'E', 'N', 'D'};
+    private static final byte COLOR_TYPE_RGBA = 6;
+
+    private final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+    private final CRC32 crc = new CRC32();
+    private final byte[] header = new byte[13];
+    private final byte[] word = new byte[4];
+    private int[] pixels = new int[0];
+    private byte[] raw = new byte[0];
+    private byte[] compressed = new byte[0];
+
+    void encode(Image image, OutputStream out) throws IOException {
+        int width = (int) image.getWidth();
+        int height = (int) image.getHeight();
+        if (pixels.length < width * height) {
+            pixels = new int[width * height];
+        }
+        image.getPixelReader().getPixels(0, 0, width, height, PixelFormat.getIntArgbInstance(), pixels, 0, width);
+
+        // Every scanline starts with filter type 0, none
+        int rawLength = height * (1 + width * 4);
+        if (raw.length < rawLength) {
+            raw = new byte[rawLength];
+        }
+        int position = 0;
+        for (int y = 0; y < height; y++) {
+            raw[position++] = 0;
+            for (int x = 0, offset = y * width; x < width; x++) {
+                int argb = pixels[offset + x];
+                raw[position++] = (byte) (argb >> 16);
+                raw[position++] = (byte) (argb >> 8);
+                raw[position++] = (byte) argb;
+                raw[position++] = (byte) (argb >>> 24);
+            }
+        }
+
+        deflater.reset();
+        deflater.setInput(raw, 0, rawLength);
+        deflater.finish();
+        if (compressed.length < rawLength / 2 + 64) {
+            compressed = new byte[rawLength / 2 + 64];
+        }
+        int length = 0;
+        while (!deflater.finished()) {
+            if (length == compressed.length) {
+                byte[] grown = new byte[compressed.length * 2];
+                System.arraycopy(compressed, 0, grown, 0, length);
+                compressed = grown;
+            }
+            length += deflater.deflate(compressed, length, compressed.length - length);
+        }
+
+        putInt(header, 0, width);
+        putInt(header, 4, height);
+        header[8] = 8;
+        header[9] = COLOR_TYPE_RGBA;
+        header[10] = 0;
+        header[11] = 0;
+        header[12] = 0;
+
+        out.write(SIGNATURE);
+        chunk(out, IHDR, header, header.length);
+        chunk(out, IDAT, compressed, length);
+        chunk(out, IEND, header, 0);
+    }
+
+    private void chunk(OutputStream out, byte[] type, byte[] data, int length) throws IOException {
+        putInt(word, 0, length);
+        out.write(word);
+        out.write(type);
+        out.write(data, 0, length);
+
+        crc.reset();
+        crc.update(type);
+        crc.update(data, 0, length);
+        putInt(word, 0, (int) crc.getValue());
+        out.write(word);
+    }
+
+    private static void putInt(byte[] bytes, int offset, int value) {
+        bytes[offset] = (byte) (value >>> 24);
+        bytes[offset + 1] = (byte) (value >>> 16);
+        bytes[offset + 2] = (byte) (value >>> 8);
+        bytes[offset + 3] = (byte) value;
+    }
+}
@@ -0,0 +1,97 @@
+package notification;
+
+import javafx.collections.ListChangeListener;
+import javafx.geometry.Point2D;
+import javafx.geometry.Rectangle2D;
+import javafx.scene.robot.Robot;
+import javafx.stage.Screen;
+import javafx.stage.Stage;
+
+import java.util.ArrayList;
+
+public class ScreenPlacement {
+
+    private static final ScreenPlacement INSTANCE = new ScreenPlacement();
+
+    private final ArrayList<Screen> screens = new ArrayList<>();
+    private final ArrayList<Rectangle2D> bounds = new ArrayList<>();
+    private final ArrayList<Rectangle2D> workAreas = new ArrayList<>();
+    private Rectangle2D primaryWorkArea;
+    private boolean listening;
+    private Robot robot;
+
+    private ScreenPlacement() {
+    }
+
+    public static ScreenPlacement getInstance() {
+        return INSTANCE;
+    }
+
+    public int getScreenCount() {
+        ensureListening();
+        return screens.size();
+    }
+
+    public Rectangle2D getWorkArea(Screen screen) {
+        ensureListening();
+        int index = screens.indexOf(screen);
+        return index >= 0 ? workAreas.get(index) : primaryWorkArea;
+    }
+
+    // Screens are read once and again only when JavaFX reports a monitor change
+    Rectangle2D workArea(Notify.Target target, Screen screen, Stage owner) {
+        ensureListening();
+        if (screen != null) {
+            return getWorkArea(screen);
+        }
+
+        return switch (target) {
+            case PRIMARY -> primaryWorkArea;
+            case CURSOR -> workAreaAt(cursor());
+            case OWNER -> owner == null || !owner.isShowing() ? primaryWorkArea
+                    : workAreaAt(owner.getX() + owner.getWidth() / 2, owner.getY() + owner.getHeight() / 2);
+        };
+    }
+
+    private Rectangle2D workAreaAt(Point2D point) {
+        return workAreaAt(point.getX(), point.getY());
+    }
+
+    private Rectangle2D workAreaAt(double x, double y) {
+        for (int i = 0; i < bounds.size(); i++) {
+            if (bounds.get(i).contains(x, y)) {
+                return workAreas.get(i);
+            }
+        }
+        return primaryWorkArea;
+    }
+
+    private Point2D cursor() {
+        if (robot == null) {
+            robot = new Robot();
+        }
+        return robot.getMousePosition();
+    }
+
+    private void ensureListening() {
+        if (listening) {
+            return;
+        }
+
+        listening = true;
+        Screen.getScreens().addListener((ListChangeListener<Screen>) change -> refresh());
+        refresh();
+    }
+
+    private void refresh() {
+        screens.clear();
+        bounds.clear();
+        workAreas.clear();
+        for (Screen screen : Screen.getScreens()) {
+            screens.add(screen);
+            bounds.add(screen.getBounds());
+            workAreas.add(screen.getVisualBounds());
+        }
+        primaryWorkArea = Screen.getPrimary().getVisualBounds();
+    }
+}
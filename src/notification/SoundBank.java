@@ -0,0 +1,102 @@
+package notification;
+
+import javafx.scene.media.AudioClip;
+import javafx.util.Duration;
+
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.EnumMap;
+
+public class SoundBank {
+
+    private static final SoundBank INSTANCE = new SoundBank();
+    private static final int DEFAULT_MAX_PLAYS = 2;
+    private static final Duration DEFAULT_WINDOW = Duration.millis(300);
+
+    private final EnumMap<Notify.Sounds, AudioClip> clips = new EnumMap<>(Notify.Sounds.class);
+    private final EnumMap<Notify.Sounds, long[]> recentPlays = new EnumMap<>(Notify.Sounds.class);
+    private int maxPlays = DEFAULT_MAX_PLAYS;
+    private long windowNanos = toNanos(DEFAULT_WINDOW);
+
+    private SoundBank() {
+    }
+
+    public static SoundBank getInstance() {
+        return INSTANCE;
+    }
+
+    public synchronized void preload() {
+        for (Notify.Sounds sound : Notify.Sounds.values()) {
+            clip(sound);
+        }
+    }
+
+    public synchronized void setThrottle(int maxPlays, Duration window) {
+        if (maxPlays <= 0) {
+            throw new IllegalArgumentException("maxPlays must be positive");
+        }
+
+        this.maxPlays = maxPlays;
+        this.windowNanos = toNanos(window);
+        recentPlays.clear();
+    }
+
+    public synchronized boolean play(Notify.Sounds sound) {
+        if (sound == null || !admit(sound, System.nanoTime())) {
+            return false;
+        }
+
+        AudioClip clip = clip(sound);
+        if (clip == null) {
+            return false;
+        }
+
+        clip.play();
+        return true;
+    }
+
+    private boolean admit(Notify.Sounds sound, long now) {
+        long[] plays = recentPlays.computeIfAbsent(sound, key -> new long[maxPlays]);
+
+        // plays[] holds the start times of the last maxPlays plays, oldest first
+        long oldest = plays[0];
+        if (oldest != 0 && now - oldest < windowNanos) {
+            return false;
+        }
+
+        System.arraycopy(plays, 1, plays, 0, plays.length - 1);
+        plays[plays.length - 1] = now;
+        return true;
+    }
+
+    private AudioClip clip(Notify.Sounds sound) {
+        AudioClip clip = clips.get(sound);
+        if (clip == null) {
+            String source = locate(sound.getFileName());
+            if (source == null) {
+                System.err.println("Notification sound not found: " + sound.getFileName());
+                return null;
+            }
+
+            clip = new AudioClip(source);
+            clips.put(sound, clip);
+        }
+        return clip;
+    }
+
+    private static String locate(String fileName) {
+        URL resource = SoundBank.class.getResource("/" + fileName);
+        if (resource != null) {
+            return resource.toExternalForm();
+        }
+
+        Path path = Paths.get("resources", fileName);
+        return Files.exists(path) ? path.toUri().toString() : null;
+    }
+
+    private static long toNanos(Duration duration) {
+        return (long) (duration.toMillis() * 1_000_000);
+    }
+}
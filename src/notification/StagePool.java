@@ -0,0 +1,84 @@
+package notification;
+
+import javafx.stage.Stage;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class StagePool {
+
+    private static final StagePool INSTANCE = new StagePool();
+    private static final int DEFAULT_MAX_SIZE = 8;
+
+    private final ArrayDeque<NotificationWindow> idle = new ArrayDeque<>();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private volatile int maxSize = DEFAULT_MAX_SIZE;
+
+    private StagePool() {
+    }
+
+    public static StagePool getInstance() {
+        return INSTANCE;
+    }
+
+    public void prewarm(Stage owner, int count) {
+        while (idle.size() < Math.min(count, maxSize)) {
+            idle.push(new NotificationWindow(owner));
+        }
+    }
+
+    public void setMaxSize(int maxSize) {
+        if (maxSize < 0) {
+            throw new IllegalArgumentException("maxSize must not be negative");
+        }
+
+        this.maxSize = maxSize;
+        while (idle.size() > maxSize) {
+            idle.removeLast().popup.close();
+        }
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public int getIdleCount() {
+        return idle.size();
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    NotificationWindow acquire(Stage owner) {
+        Iterator<NotificationWindow> iterator = idle.iterator();
+        while (iterator.hasNext()) {
+            NotificationWindow window = iterator.next();
+            // Owner is fixed once a stage is initialised, so only matching windows can be reused
+            if (window.owner == owner) {
+                iterator.remove();
+                hits.incrementAndGet();
+                return window;
+            }
+        }
+
+        misses.incrementAndGet();
+        return new NotificationWindow(owner);
+    }
+
+    void release(NotificationWindow window) {
+        window.reset();
+
+        if (idle.size() < maxSize) {
+            idle.push(window);
+        } else {
+            window.popup.close();
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package notification;
+
+import javafx.scene.text.Font;
+import javafx.scene.text.Text;
+
+import java.util.Arrays;
+import java.util.HashMap;
+
+// Character advances per font, each measured once, so long text can be wrapped without laying all of it out.
+// Kerning is ignored, which is close enough to decide where a preview ends. Use on the FX thread.
+final class TextMetrics {
+
+    private static final HashMap<Font, TextMetrics> CACHE = new HashMap<>();
+
+    private final Text probe = new Text();
+    private final double[] ascii = new double[128];
+    private final HashMap<Character, Double> others = new HashMap<>();
+    private final double pairWidth;
+
+    private TextMetrics(Font font) {
+        probe.setFont(font);
+        Arrays.fill(ascii, -1);
+        pairWidth = width("xx");
+    }
+
+    static TextMetrics of(Font font) {
+        return CACHE.computeIfAbsent(font, TextMetrics::new);
+    }
+
+    double advance(char c) {
+        if (c < ascii.length) {
+            if (ascii[c] < 0) {
+                ascii[c] = measure(c);
+            }
+            return ascii[c];
+        }
+        return others.computeIfAbsent(c, this::measure);
+    }
+
+    // The first maxLines lines of text wrapped at width, ended with an ellipsis, or null when all of it fits.
+    // Only the preview is scanned, so the cost does not depend on how long the text is.
+    String preview(String text, double width, int maxLines) {
+        StringBuilder preview = new StringBuilder();
+        int length = text.length();
+        int lines = 0;
+        int lineStart = 0;
+        int lastBreak = -1;
+        double lineWidth = 0;
+
+        int i = 0;
+        while (i < length) {
+            char c = text.charAt(i);
+            boolean newline = c == '\n';
+            double advance = newline ? 0 : advance(c);
+            if (!newline && (lineWidth + advance <= width || i == lineStart)) {
+                lineWidth += advance;
+                if (c == ' ') {
+                    lastBreak = i + 1;
+                }
+                i++;
+                continue;
+            }
+
+            // Break after the last space like Text does, or mid-word when the word is wider than the line
+            int end = newline ? i : lastBreak > lineStart ? lastBreak : i;
+            int visibleEnd = end;
+            while (visibleEnd > lineStart && text.charAt(visibleEnd - 1) == ' ') {
+                visibleEnd--;
+            }
+            if (lines > 0) {
+                preview.append('\n');
+            }
+            preview.append(text, lineStart, visibleEnd);
+            lines++;
+
+            lineStart = newline ? i + 1 : end;
+            while (!newline && lineStart < length && text.charAt(lineStart) == ' ') {
+                lineStart++;
+            }
+            if (lines == maxLines) {
+                return lineStart < length ? trimEnd(preview).append('…').toString() : null;
+            }
+            i = lineStart;
+            lastBreak = -1;
+            lineWidth = 0;
+        }
+        return null;
+    }
+
+    private double measure(char c) {
+        return width("x" + c + "x") - pairWidth;
+    }
+
+    private double width(String text) {
+        probe.setText(text);
+        return probe.getLayoutBounds().getWidth();
+    }
+
+    private static StringBuilder trimEnd(StringBuilder text) {
+        int end = text.length();
+        while (end > 0 && Character.isWhitespace(text.charAt(end - 1))) {
+            end--;
+        }
+        text.setLength(end);
+        return text;
+    }
+}
@@ -0,0 +1,196 @@
+package notification;
+
+import javafx.scene.paint.Color;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public final class Theme {
+
+    private static final int MAX_THEMES = 64;
+    private static final int MAX_STYLESHEETS = 32;
+    private static final AtomicInteger NEXT_ID = new AtomicInteger();
+
+    // Maps the settings as given and as normalised to one shared instance, the least recently used are forgotten
+    private static final LinkedHashMap<Theme, Theme> INTERNED = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Theme, Theme> eldest) {
+            return size() > MAX_THEMES;
+        }
+    };
+
+    // Only the colors go into a stylesheet, so themes that differ in opacity or icon border share one.
+    // Each is generated and parsed once; the least recently used are forgotten past MAX_STYLESHEETS.
+    private static final LinkedHashMap<String, Stylesheet> STYLESHEETS = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Stylesheet> eldest) {
+            return size() > MAX_STYLESHEETS;
+        }
+    };
+
+    public static final Theme DEFAULT = of("#FFFFFF", "#b3b3b3", "#262626", 1, Notify.Border.CIRCLE);
+
+    private final String textColorTitle;
+    private final String textColorMessage;
+    private final String backgroundColor;
+    private final double backgroundOpacity;
+    private final Notify.Border iconBorder;
+    private final int hash;
+    private Stylesheet stylesheet;
+
+    private Theme(String textColorTitle, String textColorMessage, String backgroundColor,
+                  double backgroundOpacity, Notify.Border iconBorder) {
+        this.textColorTitle = textColorTitle;
+        this.textColorMessage = textColorMessage;
+        this.backgroundColor = backgroundColor;
+        this.backgroundOpacity = backgroundOpacity;
+        this.iconBorder = iconBorder;
+        this.hash = Objects.hash(textColorTitle, textColorMessage, backgroundColor, backgroundOpacity, iconBorder);
+    }
+
+    // Equal settings return the same instance with its stylesheet already resolved. Colors are normalised first,
+    // so "#fff", "white" and "#FFFFFF" share it too; settings seen before skip the parsing.
+    public static Theme of(String textColorTitle, String textColorMessage, String backgroundColor,
+                           double backgroundOpacity, Notify.Border iconBorder) {
+        Theme given = new Theme(textColorTitle, textColorMessage, backgroundColor, backgroundOpacity, iconBorder);
+        synchronized (INTERNED) {
+            Theme interned = INTERNED.get(given);
+            if (interned != null) {
+                return interned;
+            }
+        }
+
+        Theme normalised = new Theme(normalise(textColorTitle), normalise(textColorMessage), normalise(backgroundColor),
+                backgroundOpacity, iconBorder);
+        synchronized (INTERNED) {
+            Theme interned = INTERNED.get(normalised);
+            if (interned != null) {
+                INTERNED.put(given, interned);
+                return interned;
+            }
+        }
+
+        normalised.stylesheet();
+        synchronized (INTERNED) {
+            Theme interned = INTERNED.putIfAbsent(normalised, normalised);
+            if (interned == null) {
+                interned = normalised;
+            }
+            INTERNED.put(given, interned);
+            return interned;
+        }
+    }
+
+    public Theme withTextColorTitle(String textColorTitle) {
+        return of(textColorTitle, textColorMessage, backgroundColor, backgroundOpacity, iconBorder);
+    }
+
+    public Theme withTextColorMessage(String textColorMessage) {
+        return of(textColorTitle, textColorMessage, backgroundColor, backgroundOpacity, iconBorder);
+    }
+
+    public Theme withBackgroundColor(String backgroundColor) {
+        return of(textColorTitle, textColorMessage, backgroundColor, backgroundOpacity, iconBorder);
+    }
+
+    public Theme withBackgroundOpacity(double backgroundOpacity) {
+        return of(textColorTitle, textColorMessage, backgroundColor, backgroundOpacity, iconBorder);
+    }
+
+    public Theme withIconBorder(Notify.Border iconBorder) {
+        return of(textColorTitle, textColorMessage, backgroundColor, backgroundOpacity, iconBorder);
+    }
+
+    public String getTextColorTitle() {
+        return textColorTitle;
+    }
+
+    public String getTextColorMessage() {
+        return textColorMessage;
+    }
+
+    public String getBackgroundColor() {
+        return backgroundColor;
+    }
+
+    public double getBackgroundOpacity() {
+        return backgroundOpacity;
+    }
+
+    public Notify.Border getIconBorder() {
+        return iconBorder;
+    }
+
+    String getStyleClass() {
+        return stylesheet().styleClass;
+    }
+
+    String getStylesheet() {
+        return stylesheet().uri;
+    }
+
+    private Stylesheet stylesheet() {
+        if (stylesheet == null) {
+            String key = textColorTitle + ' ' + textColorMessage + ' ' + backgroundColor;
+            synchronized (STYLESHEETS) {
+                stylesheet = STYLESHEETS.computeIfAbsent(key, k -> new Stylesheet(this));
+            }
+        }
+        return stylesheet;
+    }
+
+    // Parsing the color first keeps arbitrary strings out of the generated stylesheet
+    private static String normalise(String color) {
+        return Color.web(color).toString();
+    }
+
+    private static String toCss(String color) {
+        Color parsed = Color.web(color);
+        return String.format(Locale.ROOT, "rgba(%d, %d, %d, %.3f)", Math.round(parsed.getRed() * 255),
+                Math.round(parsed.getGreen() * 255), Math.round(parsed.getBlue() * 255), parsed.getOpacity());
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Theme)) {
+            return false;
+        }
+
+        Theme other = (Theme) o;
+        return hash == other.hash
+                && Double.compare(backgroundOpacity, other.backgroundOpacity) == 0
+                && iconBorder == other.iconBorder
+                && Objects.equals(textColorTitle, other.textColorTitle)
+                && Objects.equals(textColorMessage, other.textColorMessage)
+                && Objects.equals(backgroundColor, other.backgroundColor);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    // The theme only defines the looked-up colors that notify.css refers to
+    private static final class Stylesheet {
+        private final String styleClass;
+        private final String uri;
+
+        private Stylesheet(Theme theme) {
+            styleClass = "notify-theme-" + NEXT_ID.getAndIncrement();
+            String css = "." + styleClass + " {"
+                    + " -notify-title-color: " + toCss(theme.textColorTitle) + ";"
+                    + " -notify-message-color: " + toCss(theme.textColorMessage) + ";"
+                    + " -notify-background-color: " + toCss(theme.backgroundColor) + ";"
+                    + " }";
+            uri = "data:text/css;base64," + Base64.getEncoder().encodeToString(css.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+}
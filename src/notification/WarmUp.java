@@ -0,0 +1,88 @@
+package notification;
+
+import javafx.application.Platform;
+import javafx.scene.text.Font;
+import javafx.stage.Stage;
+
+import java.util.concurrent.CompletableFuture;
+
+// Pays the first-notification costs up front so the first real popup is close to steady state: the media pipeline
+// and sound clips, fonts, the stylesheet and control skins, screen geometry, pooled windows and the layout code itself.
+public final class WarmUp {
+
+    private static final int POOLED_WINDOWS = 2;
+    private static final int LAYOUT_ROUNDS = 50;
+
+    private WarmUp() {
+    }
+
+    // Does all of it now, on the FX thread
+    public static void run(Stage owner) {
+        SoundBank.getInstance().preload();
+        prepare(owner);
+        OffscreenRenderer renderer = new OffscreenRenderer();
+        for (int i = 0; i < LAYOUT_ROUNDS; i++) {
+            renderer.render(representative(owner, i));
+        }
+    }
+
+    // Meant for Application.start: sounds load on their own thread, the FX work runs one small step per event
+    public static CompletableFuture<Void> inBackground(Stage owner) {
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        Thread loader = new Thread(() -> {
+            try {
+                SoundBank.getInstance().preload();
+            } catch (RuntimeException e) {
+                e.printStackTrace();
+            }
+            Platform.runLater(() -> step(owner, null, 0, done));
+        }, "notify-warmup");
+        loader.setDaemon(true);
+        loader.start();
+        return done;
+    }
+
+    private static void step(Stage owner, OffscreenRenderer renderer, int round, CompletableFuture<Void> done) {
+        try {
+            if (renderer == null) {
+                prepare(owner);
+                renderer = new OffscreenRenderer();
+            }
+            renderer.render(representative(owner, round));
+        } catch (RuntimeException e) {
+            done.completeExceptionally(e);
+            return;
+        }
+
+        if (round + 1 < LAYOUT_ROUNDS) {
+            OffscreenRenderer next = renderer;
+            Platform.runLater(() -> step(owner, next, round + 1, done));
+        } else {
+            done.complete(null);
+        }
+    }
+
+    private static void prepare(Stage owner) {
+        Font.font(24);
+        Font.font(18);
+        Font.font(14);
+        ScreenPlacement.getInstance().getScreenCount();
+        StagePool.getInstance().prewarm(owner, POOLED_WINDOWS);
+    }
+
+    // Every section a popup can have, so each skin, style rule and layout branch is loaded and compiled once;
+    // rendered off-screen into a window that is never shown and then dropped
+    private static Notify.Builder representative(Stage owner, int round) {
+        return new Notify.Builder(owner)
+                .title("Warm-up " + round)
+                .message("Preparing notifications")
+                .appName("Notify")
+                .textInput()
+                .comboBox("a", "a", "b")
+                .progress(round / (double) LAYOUT_ROUNDS)
+                .okButton("OK", event -> {
+                })
+                .cancelButton("Cancel", event -> {
+                });
+    }
+}